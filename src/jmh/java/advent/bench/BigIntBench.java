@@ -0,0 +1,93 @@
+package advent.bench;
+
+import advent.BigInt;
+import advent.MutableBigInt;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BigInt} and {@link MutableBigInt} against a bare {@link BigInteger}, on the counter loop Ex17 used to run:
+ * compare with {@code -prof gc} for the allocation per operation.
+ * <p>
+ * {@code from} sets where counting starts: {@code long} values stay on the fast path,
+ * {@code huge} ones (past {@link Long#MAX_VALUE}) are promoted.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BigIntBench {
+    private static final int STEPS = 1_000;
+    private static final BigInteger FIVE = BigInteger.valueOf(5);
+    private static final BigInteger PERIOD = BigInteger.valueOf(1_000);
+
+    @Param({"long", "huge"})
+    public String from;
+
+    private BigInteger startInteger;
+    private BigInt start;
+
+    @Setup
+    public void setUp() {
+        startInteger = switch (from) {
+            case "long" -> BigInteger.valueOf(1_000_000_000_000L);
+            case "huge" -> BigInteger.TWO.pow(80);
+            default -> throw new IllegalArgumentException("unknown start: " + from);
+        };
+        start = new BigInt(startInteger);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    public int bigIntegerCounter() {
+        int hits = 0;
+        BigInteger counter = startInteger;
+        for (int i = 0; i < STEPS; ++i) {
+            hits += counter.mod(FIVE).intValue();
+            if (counter.mod(PERIOD).equals(BigInteger.ZERO)) ++hits;
+            counter = counter.add(BigInteger.ONE);
+        }
+        return hits;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    public int bigIntCounter() {
+        int hits = 0;
+        BigInt counter = start;
+        for (int i = 0; i < STEPS; ++i) {
+            hits += counter.mod(5);
+            if (counter.divisibleBy(1_000)) ++hits;
+            counter = counter.inc();
+        }
+        return hits;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    public int mutableBigIntCounter() {
+        int hits = 0;
+        MutableBigInt counter = new MutableBigInt(start);
+        for (int i = 0; i < STEPS; ++i) {
+            hits += counter.mod(5);
+            if (counter.divisibleBy(1_000)) ++hits;
+            counter.inc();
+        }
+        return hits;
+    }
+}
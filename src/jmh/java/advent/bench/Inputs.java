@@ -0,0 +1,41 @@
+package advent.bench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bundled puzzle inputs, extracted once to temp files so solvers can open them
+ * as a plain {@link Path} even from inside the shaded benchmarks jar.
+ */
+final class Inputs {
+    private static final Map<String, Path> EXTRACTED = new ConcurrentHashMap<>();
+
+    private Inputs() {}
+
+    /**
+     * @param anchor  any class of the puzzle's package (resources are resolved relative to it)
+     * @param dataset {@code example} or {@code input}
+     */
+    static Path of(Class<?> anchor, int day, String dataset) {
+        String name = "ex%d.%s.txt".formatted(day, dataset);
+        return EXTRACTED.computeIfAbsent(anchor.getPackageName() + '/' + name, key -> extract(anchor, name));
+    }
+
+    private static Path extract(Class<?> anchor, String name) {
+        try (InputStream in = anchor.getResourceAsStream(name)) {
+            if (in == null) throw new IllegalArgumentException("no resource " + name + " next to " + anchor);
+            Path tmp = Files.createTempFile(anchor.getPackageName() + '.', '.' + name);
+            tmp.toFile().deleteOnExit();
+            Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+            return tmp;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
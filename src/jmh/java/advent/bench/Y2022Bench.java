@@ -0,0 +1,123 @@
+package advent.bench;
+
+import advent.Runner;
+import advent.y2022.Ex1;
+import advent.y2022.Ex10;
+import advent.y2022.Ex11;
+import advent.y2022.Ex12;
+import advent.y2022.Ex13;
+import advent.y2022.Ex17;
+import advent.y2022.Ex2;
+import advent.y2022.Ex20;
+import advent.y2022.Ex3;
+import advent.y2022.Ex4;
+import advent.y2022.Ex5;
+import advent.y2022.Ex6;
+import advent.y2022.Ex7;
+import advent.y2022.Ex8;
+import advent.y2022.Ex9;
+import advent.y2022.Recurse13;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Y2022Bench {
+    @Param({"example", "input"})
+    public String dataset;
+
+    @Benchmark
+    public Object ex1() throws IOException {
+        return Runner.solve(new Ex1(), Inputs.of(Ex1.class, 1, dataset));
+    }
+
+    @Benchmark
+    public Object ex2() throws IOException {
+        return Runner.solve(new Ex2(), Inputs.of(Ex2.class, 2, dataset));
+    }
+
+    @Benchmark
+    public Object ex3() throws IOException {
+        return Runner.solve(new Ex3(), Inputs.of(Ex3.class, 3, dataset));
+    }
+
+    @Benchmark
+    public Object ex4() throws IOException {
+        return Runner.solve(new Ex4(), Inputs.of(Ex4.class, 4, dataset));
+    }
+
+    @Benchmark
+    public Object ex5() throws IOException {
+        return Runner.solve(new Ex5(), Inputs.of(Ex5.class, 5, dataset));
+    }
+
+    @Benchmark
+    public Object ex6() throws IOException {
+        return Runner.solve(new Ex6(), Inputs.of(Ex6.class, 6, dataset));
+    }
+
+    @Benchmark
+    public Object ex7() throws IOException {
+        return Runner.solve(new Ex7(), Inputs.of(Ex7.class, 7, dataset));
+    }
+
+    @Benchmark
+    public Object ex8() throws IOException {
+        return Runner.solve(new Ex8(), Inputs.of(Ex8.class, 8, dataset));
+    }
+
+    @Benchmark
+    public Object ex9() throws IOException {
+        return Runner.solve(new Ex9(), Inputs.of(Ex9.class, 9, dataset));
+    }
+
+    @Benchmark
+    public Object ex10() throws IOException {
+        return Runner.solve(new Ex10(), Inputs.of(Ex10.class, 10, dataset));
+    }
+
+    @Benchmark
+    public Object ex11() throws IOException {
+        return Runner.solve(new Ex11(), Inputs.of(Ex11.class, 11, dataset));
+    }
+
+    @Benchmark
+    public Object ex12() throws IOException {
+        return Runner.solve(new Ex12(), Inputs.of(Ex12.class, 12, dataset));
+    }
+
+    @Benchmark
+    public Object ex13() throws IOException {
+        return Runner.solve(new Ex13(), Inputs.of(Ex13.class, 13, dataset));
+    }
+
+    @Benchmark
+    public Object recurse13() throws IOException {
+        return Runner.solve(new Recurse13(), Inputs.of(Recurse13.class, 13, dataset));
+    }
+
+    @Benchmark
+    public Object ex17() throws IOException {
+        return Runner.solve(new Ex17(), Inputs.of(Ex17.class, 17, dataset));
+    }
+
+    @Benchmark
+    public Object ex20() throws IOException {
+        return Runner.solve(new Ex20(), Inputs.of(Ex20.class, 20, dataset));
+    }
+}
@@ -0,0 +1,58 @@
+package advent.bench;
+
+import advent.Runner;
+import advent.y2023.Ex1;
+import advent.y2023.Ex2;
+import advent.y2023.Ex3;
+import advent.y2023.Ex4;
+import advent.y2023.Ex5;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Y2023Bench {
+
+    @Param({"example", "input"})
+    public String dataset;
+
+    @Benchmark
+    public Object ex1() throws IOException {
+        return Runner.solve(new Ex1(), Inputs.of(Ex1.class, 1, dataset));
+    }
+
+    @Benchmark
+    public Object ex2() throws IOException {
+        return Runner.solve(new Ex2(), Inputs.of(Ex2.class, 2, dataset));
+    }
+
+    @Benchmark
+    public Object ex3() throws IOException {
+        return Runner.solve(new Ex3(), Inputs.of(Ex3.class, 3, dataset));
+    }
+
+    @Benchmark
+    public Object ex4() throws IOException {
+        return Runner.solve(new Ex4(), Inputs.of(Ex4.class, 4, dataset));
+    }
+
+    @Benchmark
+    public Object ex5() throws IOException {
+        return Runner.solve(new Ex5(), Inputs.of(Ex5.class, 5, dataset));
+    }
+}
@@ -2,52 +2,105 @@ package advent;
 
 import java.math.BigInteger;
 
+/**
+ * Integer of any size, held in a plain {@code long} as long as it fits:
+ * a {@link BigInteger} is only involved once an operation overflows.
+ * <p>
+ * Values are immutable, hashed by value (usable as keys), and small ones are shared (see {@link #valueOf(long)}).
+ */
 public class BigInt implements Comparable<BigInt> {
-    public static final BigInt ZERO = new BigInt(BigInteger.ZERO);
-    public static final BigInt ONE = new BigInt(BigInteger.ONE);
+    private static final int CACHE_LOW = -128;
+    private static final int CACHE_HIGH = 1024;
+    private static final BigInt[] CACHE = new BigInt[CACHE_HIGH - CACHE_LOW + 1];
+    static {
+        for (int i = 0; i < CACHE.length; ++i) CACHE[i] = new BigInt(CACHE_LOW + i);
+    }
+
+    public static final BigInt ZERO = valueOf(0);
+    public static final BigInt ONE = valueOf(1);
 
-    private final BigInteger val;
+    /** value, when {@link #big} is null */
+    private final long small;
+    /** value, only when it does not fit in a long */
+    private final BigInteger big;
+    /** cached {@link #hashCode()} of {@link #big}, 0 until computed */
+    private int hash;
 
     public BigInt(BigInteger val) {
-        this.val = val;
+        if (val.bitLength() < Long.SIZE) {
+            this.small = val.longValue();
+            this.big = null;
+        } else {
+            this.small = 0;
+            this.big = val;
+        }
     }
     public BigInt(long val) {
-        this(BigInteger.valueOf(val));
+        this.small = val;
+        this.big = null;
     }
     public BigInt(String val) {
         this(new BigInteger(val));
     }
 
+    /** @return the shared instance for small values, a new one otherwise */
+    public static BigInt valueOf(long val) {
+        if (val >= CACHE_LOW && val <= CACHE_HIGH) return CACHE[(int) val - CACHE_LOW];
+        return new BigInt(val);
+    }
+
+    private static BigInt valueOf(BigInteger val) {
+        return val.bitLength() < Long.SIZE ? valueOf(val.longValue()) : new BigInt(val);
+    }
+
     @Override
     public int compareTo(BigInt o) {
-        return val.compareTo(o.val);
+        if (big == null && o.big == null) return Long.compare(small, o.small);
+        return toBigInteger().compareTo(o.toBigInteger());
     }
 
     public BigInt dividedBy(int divisor) {
-        return new BigInt(val.divide(BigInteger.valueOf(divisor)));
+        return dividedBy((long) divisor);
+    }
+
+    public BigInt dividedBy(BigInt divisor) {
+        if (divisor.big == null) return dividedBy(divisor.small);
+        return valueOf(toBigInteger().divide(divisor.big));
+    }
+
+    private BigInt dividedBy(long divisor) {
+        if (big == null && (small != Long.MIN_VALUE || divisor != -1)) return valueOf(small / divisor);
+        return valueOf(toBigInteger().divide(BigInteger.valueOf(divisor)));
     }
 
     public boolean divisibleBy(BigInt d) {
-        return divisibleBy(d.val);
+        if (d.big == null) return divisibleBy(d.small);
+        return divisibleBy(d.big);
     }
     public boolean divisibleBy(BigInteger d) {
-        return val.mod(d).equals(BigInteger.ZERO);
+        return toBigInteger().mod(d).equals(BigInteger.ZERO);
     }
     public boolean divisibleBy(long d) {
+        if (big == null && d > 0) return small % d == 0;
         return divisibleBy(BigInteger.valueOf(d));
     }
     public BigInt inc() {
-        return new BigInt(val.add(BigInteger.ONE));
+        return plus(1);
     }
 
     @Override
     public int hashCode() {
-        return super.hashCode();
+        if (big == null) return Long.hashCode(small);
+        int h = hash;
+        if (h == 0) hash = h = big.hashCode();
+        return h;
     }
 
     @Override
     public boolean equals(Object obj) {
-        return (obj instanceof BigInt other) && val.equals(other.val);
+        // representation is canonical: a long whenever it fits
+        return (obj instanceof BigInt other) && small == other.small
+                && (big == null ? other.big == null : big.equals(other.big));
     }
 
     public boolean lowerTo(BigInt other) {
@@ -56,34 +109,77 @@ public class BigInt implements Comparable<BigInt> {
 
     @Override
     public String toString() {
-        return val.toString();
+        return big == null ? Long.toString(small) : big.toString();
     }
 
     public int mod(int div) {
-        return val.mod(BigInteger.valueOf(div)).intValue();
+        if (big == null && div > 0) return (int) Math.floorMod(small, (long) div);
+        return toBigInteger().mod(BigInteger.valueOf(div)).intValue();
     }
 
     public BigInt plus(BigInt amount) {
-        return new BigInt(val.add(amount.val));
+        if (amount.big == null) return plus(amount.small);
+        return valueOf(toBigInteger().add(amount.big));
     }
 
     public BigInt plus(long amount) {
-        return new BigInt(val.add(BigInteger.valueOf(amount)));
+        if (big == null) {
+            try {
+                return valueOf(Math.addExact(small, amount));
+            } catch (ArithmeticException overflow) {
+                // promoted below
+            }
+        }
+        return valueOf(toBigInteger().add(BigInteger.valueOf(amount)));
     }
 
     public BigInt minus(BigInt amount) {
-        return new BigInt(val.subtract(amount.val));
+        if (big == null && amount.big == null) {
+            try {
+                return valueOf(Math.subtractExact(small, amount.small));
+            } catch (ArithmeticException overflow) {
+                // promoted below
+            }
+        }
+        return valueOf(toBigInteger().subtract(amount.toBigInteger()));
     }
 
     public int intValue() {
-        return val.intValue();
+        return big == null ? (int) small : big.intValue();
+    }
+
+    /** @throws ArithmeticException if the value does not fit in a long */
+    public long longValueExact() {
+        if (big == null) return small;
+        return big.longValueExact();
+    }
+
+    /** @return whether the value is held in a long (see {@link #longValueExact()}) */
+    boolean fitsLong() {
+        return big == null;
+    }
+
+    public BigInteger toBigInteger() {
+        return big == null ? BigInteger.valueOf(small) : big;
     }
 
     public BigInt times(int mult) {
-        return new BigInt(val.multiply(BigInteger.valueOf(mult)));
+        return times((long) mult);
     }
 
     public BigInt times(BigInt mult) {
-        return new BigInt(val.multiply(mult.val));
+        if (mult.big == null) return times(mult.small);
+        return valueOf(toBigInteger().multiply(mult.big));
+    }
+
+    private BigInt times(long mult) {
+        if (big == null) {
+            try {
+                return valueOf(Math.multiplyExact(small, mult));
+            } catch (ArithmeticException overflow) {
+                // promoted below
+            }
+        }
+        return valueOf(toBigInteger().multiply(BigInteger.valueOf(mult)));
     }
 }
@@ -0,0 +1,16 @@
+package advent;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * {@link Solver} fed line by line, straight from the {@link MappedLines mapped} input.
+ */
+public interface LineSolver extends Solver, Consumer<String> {
+
+    @Override
+    default void parse(Path input) throws IOException {
+        MappedLines.forEach(input, this);
+    }
+}
@@ -0,0 +1,124 @@
+package advent;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Line source over a memory-mapped file: lines are pushed one by one, so the heap stays flat whatever the input size.
+ * <p>
+ * Same splitting as {@link java.nio.file.Files#readAllLines(Path)}: lines end with {@code \n}, {@code \r} or
+ * {@code \r\n}, and a trailing terminator does not yield an extra empty line.
+ */
+public final class MappedLines {
+    /** big files are mapped by windows, {@link MappedByteBuffer} being int-indexed */
+    private static final long WINDOW = 1 << 30;
+
+    private MappedLines() {}
+
+    /**
+     * Pushes each line as a {@link String} (UTF-8).
+     */
+    public static void forEach(Path input, Consumer<? super String> action) throws IOException {
+        Decoder decoder = new Decoder();
+        scan(input, (window, start, len) -> action.accept(decoder.decode(window, start, len)));
+    }
+
+    /**
+     * Pushes each line as a view over the mapped bytes, without allocating any {@link String}.
+     * <p>
+     * The view is recycled between lines: {@code action} must not keep it (copy through {@link CharSequence#toString()}).
+     * Bytes are read as ISO-8859-1, which is exact for the ASCII puzzle inputs.
+     */
+    public static void forEachView(Path input, Consumer<? super CharSequence> action) throws IOException {
+        View view = new View();
+        scan(input, (window, start, len) -> action.accept(view.wrap(window, start, len)));
+    }
+
+    @FunctionalInterface
+    private interface LineHandler {
+        void handle(MappedByteBuffer window, int start, int len);
+    }
+
+    private static void scan(Path input, LineHandler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(input, READ)) {
+            final long size = channel.size();
+            long offset = 0;
+            while (offset < size) {
+                long mapped = Math.min(size - offset, WINDOW);
+                boolean last = offset + mapped == size;
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, offset, mapped);
+                int limit = (int) mapped;
+                // keep the last byte for the next window, so that "\r\n" is never split
+                int scanLimit = last ? limit : limit - 1;
+                int lineStart = 0;
+                for (int i = 0; i < scanLimit; ++i) {
+                    byte b = window.get(i);
+                    if (b == '\n' || b == '\r') {
+                        handler.handle(window, lineStart, i - lineStart);
+                        if (b == '\r' && i + 1 < limit && window.get(i + 1) == '\n') ++i;
+                        lineStart = i + 1;
+                    }
+                }
+                if (last) {
+                    if (lineStart < limit) handler.handle(window, lineStart, limit - lineStart);
+                    return;
+                }
+                if (lineStart == 0) throw new IOException("line longer than %d bytes in %s".formatted(WINDOW, input));
+                offset += lineStart;
+            }
+        }
+    }
+
+    private static class Decoder {
+        private byte[] buffer = new byte[256];
+
+        String decode(MappedByteBuffer window, int start, int len) {
+            if (len > buffer.length) buffer = new byte[Math.max(len, buffer.length << 1)];
+            window.get(start, buffer, 0, len);
+            return new String(buffer, 0, len, UTF_8);
+        }
+    }
+
+    private static class View implements CharSequence {
+        private MappedByteBuffer window;
+        private int start, len;
+
+        View wrap(MappedByteBuffer window, int start, int len) {
+            this.window = window;
+            this.start = start;
+            this.len = len;
+            return this;
+        }
+
+        @Override
+        public int length() {
+            return len;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= len) throw new IndexOutOfBoundsException(index);
+            return (char) (window.get(start + index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            if (from < 0 || to > len || from > to) throw new IndexOutOfBoundsException("[%d,%d[ of %d".formatted(from, to, len));
+            return new View().wrap(window, start + from, to - from);
+        }
+
+        @Override
+        public String toString() {
+            byte[] copy = new byte[len];
+            window.get(start, copy, 0, len);
+            return new String(copy, ISO_8859_1);
+        }
+    }
+}
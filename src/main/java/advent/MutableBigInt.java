@@ -0,0 +1,112 @@
+package advent;
+
+import java.math.BigInteger;
+
+/**
+ * In-place companion of {@link BigInt}, for accumulators and counters in tight loops:
+ * updates allocate nothing while the value fits in a long, and {@link #toBigInt()} takes an immutable snapshot.
+ */
+public class MutableBigInt {
+    /** value, when {@link #big} is null */
+    private long small;
+    /** value, only when it does not fit in a long */
+    private BigInteger big;
+
+    public MutableBigInt() {
+        this(0);
+    }
+    public MutableBigInt(long val) {
+        this.small = val;
+    }
+    public MutableBigInt(BigInt val) {
+        set(val);
+    }
+
+    public MutableBigInt set(BigInt val) {
+        if (val.fitsLong()) {
+            small = val.longValueExact();
+            big = null;
+        } else {
+            big = val.toBigInteger();
+        }
+        return this;
+    }
+
+    public MutableBigInt inc() {
+        return add(1);
+    }
+
+    public MutableBigInt add(long amount) {
+        if (big == null) {
+            long sum = small + amount;
+            // overflow iff both operands have the same sign, and the sum has the other
+            if (((small ^ sum) & (amount ^ sum)) >= 0) {
+                small = sum;
+                return this;
+            }
+        }
+        return promote(toBigInteger().add(BigInteger.valueOf(amount)));
+    }
+
+    public MutableBigInt add(BigInt amount) {
+        if (amount.fitsLong()) return add(amount.longValueExact());
+        return promote(toBigInteger().add(amount.toBigInteger()));
+    }
+
+    public MutableBigInt mul(long factor) {
+        if (big == null) {
+            long hi = Math.multiplyHigh(small, factor);
+            long lo = small * factor;
+            // fits iff the high half is only the sign extension of the low one
+            if (hi == lo >> 63) {
+                small = lo;
+                return this;
+            }
+        }
+        return promote(toBigInteger().multiply(BigInteger.valueOf(factor)));
+    }
+
+    public MutableBigInt mul(BigInt factor) {
+        if (factor.fitsLong()) return mul(factor.longValueExact());
+        return promote(toBigInteger().multiply(factor.toBigInteger()));
+    }
+
+    public int mod(int div) {
+        if (big == null && div > 0) return (int) Math.floorMod(small, (long) div);
+        return toBigInteger().mod(BigInteger.valueOf(div)).intValue();
+    }
+
+    public boolean divisibleBy(long d) {
+        if (big == null && d > 0) return small % d == 0;
+        return toBigInteger().mod(BigInteger.valueOf(d)).signum() == 0;
+    }
+
+    public boolean lowerTo(BigInt other) {
+        if (big == null && other.fitsLong()) return small < other.longValueExact();
+        return toBigInteger().compareTo(other.toBigInteger()) < 0;
+    }
+
+    /** @return the current value, unaffected by later updates */
+    public BigInt toBigInt() {
+        return big == null ? BigInt.valueOf(small) : new BigInt(big);
+    }
+
+    @Override
+    public String toString() {
+        return big == null ? Long.toString(small) : big.toString();
+    }
+
+    private BigInteger toBigInteger() {
+        return big == null ? BigInteger.valueOf(small) : big;
+    }
+
+    private MutableBigInt promote(BigInteger val) {
+        if (val.bitLength() < Long.SIZE) {
+            small = val.longValue();
+            big = null;
+        } else {
+            big = val;
+        }
+        return this;
+    }
+}
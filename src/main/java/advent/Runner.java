@@ -0,0 +1,119 @@
+package advent;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Runs the {@link Solver} catalogue in a single JVM.
+ * <pre>
+ * Runner [--warmups=N] [--runs=N] [--dataset=input|example] [year [day]]</pre>
+ * Without year (resp. day), every discovered year (resp. day) is run.
+ */
+public final class Runner {
+    private static final int FIRST_YEAR = 2015;
+    private static final int LAST_DAY = 25;
+
+    private int warmups = 2;
+    private int runs = 5;
+    private String dataset = "input";
+
+    public record Answers(Object part1, Object part2) {
+        @Override
+        public String toString() {
+            return "part1=%s part2=%s".formatted(part1, part2);
+        }
+    }
+
+    public static void main(String[] args) throws IOException, URISyntaxException {
+        Runner runner = new Runner();
+        List<Integer> positional = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--warmups=")) runner.warmups = Integer.parseInt(arg.substring(10));
+            else if (arg.startsWith("--runs=")) runner.runs = Integer.parseInt(arg.substring(7));
+            else if (arg.startsWith("--dataset=")) runner.dataset = arg.substring(10);
+            else positional.add(Integer.parseInt(arg));
+        }
+        if (runner.runs < 1) throw new IllegalArgumentException("at least 1 run expected");
+
+        int fromYear = positional.isEmpty() ? FIRST_YEAR : positional.get(0);
+        int toYear = positional.isEmpty() ? Year.now().getValue() : fromYear;
+        int fromDay = positional.size() < 2 ? 1 : positional.get(1);
+        int toDay = positional.size() < 2 ? LAST_DAY : fromDay;
+        for (int year = fromYear; year <= toYear; ++year) {
+            for (int day = fromDay; day <= toDay; ++day) {
+                Optional<Class<? extends Solver>> solver = find(year, day);
+                if (solver.isPresent()) runner.run(solver.get(), year, day);
+                else if (positional.size() > 1) System.out.printf("%d day %d: no solver%n", year, day);
+            }
+        }
+    }
+
+    /**
+     * Parses then solves both parts, unsolved ones being reported as {@code null}
+     * (any other failure within a part is thrown).
+     */
+    public static Answers solve(Solver solver, Path input) throws IOException {
+        solver.parse(input);
+        return new Answers(answer(solver::part1), answer(solver::part2));
+    }
+
+    public static Optional<Class<? extends Solver>> find(int year, int day) {
+        try {
+            Class<?> type = Class.forName("advent.y%d.Ex%d".formatted(year, day));
+            return Solver.class.isAssignableFrom(type)
+                    ? Optional.of(type.asSubclass(Solver.class))
+                    : Optional.empty();
+        } catch (ClassNotFoundException e) {
+            return Optional.empty();
+        }
+    }
+
+    public static Solver spawn(Class<? extends Solver> type) {
+        try {
+            return type.getConstructor().newInstance();
+        } catch (NoSuchMethodException | InstantiationException | IllegalAccessException e) {
+            throw new IllegalStateException(type + " lacks a public no-arg constructor", e);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("cannot spawn " + type, e.getCause());
+        }
+    }
+
+    private static Object answer(Supplier<Object> part) {
+        try {
+            return part.get();
+        } catch (Solver.NotSolved e) {
+            return null;
+        }
+    }
+
+    private void run(Class<? extends Solver> type, int year, int day) throws IOException, URISyntaxException {
+        URL resource = type.getResource("ex%d.%s.txt".formatted(day, dataset));
+        if (resource == null) {
+            System.out.printf("%d day %d: no %s%n", year, day, dataset);
+            return;
+        }
+        Path input = Path.of(resource.toURI());
+        for (int i = 0; i < warmups; ++i) {
+            solve(spawn(type), input);
+        }
+        long[] nanos = new long[runs];
+        Answers answers = null;
+        for (int i = 0; i < runs; ++i) {
+            long start = System.nanoTime();
+            answers = solve(spawn(type), input);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%d day %2d: %s (median %.3f ms, best %.3f ms over %d runs)%n",
+                year, day, answers, nanos[runs / 2] / 1e6, nanos[0] / 1e6, runs);
+    }
+}
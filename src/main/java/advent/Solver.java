@@ -0,0 +1,30 @@
+package advent;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * A daily puzzle, discovered by the {@link Runner} as {@code advent.y<year>.Ex<day>}.
+ * <p>
+ * Solvers are stateful: {@link #parse(Path)} loads the input, then each part computes its answer from it.
+ * A fresh instance is spawned for every run, so implementations need a public no-arg constructor.
+ */
+public interface Solver {
+
+    void parse(Path input) throws IOException;
+
+    default Object part1() {
+        throw new NotSolved("part 1 not solved");
+    }
+
+    default Object part2() {
+        throw new NotSolved("part 2 not solved");
+    }
+
+    /** thrown by the parts a solver does not override, told apart from failures within solved parts */
+    final class NotSolved extends UnsupportedOperationException {
+        NotSolved(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package advent;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * {@link Solver} fed line by line with recycled views over the {@link MappedLines mapped} input,
+ * for parsing without any {@link String} allocation.
+ */
+public interface ViewSolver extends Solver, Consumer<CharSequence> {
+
+    @Override
+    default void parse(Path input) throws IOException {
+        MappedLines.forEachView(input, this);
+    }
+}
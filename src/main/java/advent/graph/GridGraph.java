@@ -0,0 +1,73 @@
+package advent.graph;
+
+/**
+ * Rectangular grid seen as a graph: cells are indexed {@code y * width + x},
+ * and each cell links to its (up to) 4 orthogonal neighbours.
+ */
+public interface GridGraph {
+
+    int width();
+
+    int height();
+
+    default int cells() {
+        return width() * height();
+    }
+
+    default int cell(int x, int y) {
+        return y * width() + x;
+    }
+
+    default int x(int cell) {
+        return cell % width();
+    }
+
+    default int y(int cell) {
+        return cell / width();
+    }
+
+    /**
+     * @return whether the step between neighbours {@code from} → {@code to} is allowed
+     */
+    boolean canStep(int from, int to);
+
+    /**
+     * @return the (positive) cost of an allowed step, 1 unless overridden
+     */
+    default int cost(int from, int to) {
+        return 1;
+    }
+
+    /**
+     * @return the same grid with every step turned around, to search from a destination back to all origins
+     */
+    default GridGraph reversed() {
+        final GridGraph forward = this;
+        return new GridGraph() {
+            @Override
+            public int width() {
+                return forward.width();
+            }
+
+            @Override
+            public int height() {
+                return forward.height();
+            }
+
+            @Override
+            public boolean canStep(int from, int to) {
+                return forward.canStep(to, from);
+            }
+
+            @Override
+            public int cost(int from, int to) {
+                return forward.cost(to, from);
+            }
+
+            @Override
+            public GridGraph reversed() {
+                return forward;
+            }
+        };
+    }
+}
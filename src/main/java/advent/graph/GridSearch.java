@@ -0,0 +1,172 @@
+package advent.graph;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+import java.util.function.IntSupplier;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Shortest paths over a {@link GridGraph}, without any per-path memory: each search costs a few arrays sized by the grid.
+ */
+public class GridSearch {
+    private final GridGraph graph;
+    private final boolean tracePaths;
+    private final int[] neighbours = new int[4];
+
+    /**
+     * @param tracePaths whether to keep predecessors, for {@link Paths#path(int)}
+     */
+    public GridSearch(GridGraph graph, boolean tracePaths) {
+        this.graph = graph;
+        this.tracePaths = tracePaths;
+    }
+
+    /**
+     * Breadth-first search, ignoring {@link GridGraph#cost step costs}.
+     *
+     * @param goal stops on the first cell matching it (use {@code c -> false} for the whole distance field)
+     */
+    public Paths bfs(int start, IntPredicate goal) {
+        return bfs(start, goal, () -> Integer.MAX_VALUE);
+    }
+
+    /**
+     * Breadth-first search, given up as soon as it gets as far as {@code bound} without meeting the goal.
+     *
+     * @param bound read as the search goes, so that it may shrink meanwhile (e.g. shared by concurrent searches)
+     */
+    public Paths bfs(int start, IntPredicate goal, IntSupplier bound) {
+        Paths paths = new Paths(graph.cells(), tracePaths);
+        IntQueue queue = new IntQueue();
+        paths.improve(start, 0, Paths.UNREACHED);
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            int current = queue.poll();
+            if (paths.distance(current) >= bound.getAsInt()) break;
+            if (goal.test(current)) {
+                paths.stopOn(current);
+                break;
+            }
+            int next = paths.distance(current) + 1;
+            for (int i = neighbours(current) - 1; i >= 0; --i) {
+                int n = neighbours[i];
+                if (!paths.reached(n)) {
+                    paths.improve(n, next, current);
+                    queue.add(n);
+                }
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * @param goal stops on the first settled cell matching it (use {@code c -> false} for the whole distance field)
+     */
+    public Paths dijkstra(int start, IntPredicate goal) {
+        return bestFirst(start, goal, c -> 0);
+    }
+
+    /**
+     * Cells are reopened whenever their distance improves, so that an admissible heuristic is enough:
+     * with a consistent one (never dropping by more than a step costs), none ever is.
+     *
+     * @param heuristic lower bound of the cost from a cell to {@code goal} (must never overestimate)
+     */
+    public Paths aStar(int start, int goal, IntUnaryOperator heuristic) {
+        return bestFirst(start, c -> c == goal, heuristic);
+    }
+
+    /** @return Manhattan distance to {@code goal}, the A* heuristic when each step costs at least 1 */
+    public IntUnaryOperator manhattan(int goal) {
+        final int gx = graph.x(goal), gy = graph.y(goal);
+        return c -> Math.abs(graph.x(c) - gx) + Math.abs(graph.y(c) - gy);
+    }
+
+    private Paths bestFirst(int start, IntPredicate goal, IntUnaryOperator heuristic) {
+        Paths paths = new Paths(graph.cells(), tracePaths);
+        Heap open = new Heap();
+        paths.improve(start, 0, Paths.UNREACHED);
+        open.add(heuristic.applyAsInt(start), start);
+        while (!open.isEmpty()) {
+            long entry = open.poll();
+            int current = Heap.cell(entry);
+            int distance = paths.distance(current);
+            if (Heap.priority(entry) > distance + heuristic.applyAsInt(current)) continue; // stale entry, improved since
+            if (goal.test(current)) {
+                paths.stopOn(current);
+                break;
+            }
+            for (int i = neighbours(current) - 1; i >= 0; --i) {
+                int n = neighbours[i];
+                int next = distance + graph.cost(current, n);
+                if (paths.improve(n, next, current)) open.add(next + heuristic.applyAsInt(n), n);
+            }
+        }
+        return paths;
+    }
+
+    /** fills {@link #neighbours} with the cells reachable in one step from {@code cell} */
+    private int neighbours(int cell) {
+        final int width = graph.width();
+        final int x = cell % width;
+        int count = 0;
+        if (x > 0) count = link(cell, cell - 1, count);
+        if (x < width - 1) count = link(cell, cell + 1, count);
+        if (cell >= width) count = link(cell, cell - width, count);
+        if (cell + width < graph.cells()) count = link(cell, cell + width, count);
+        return count;
+    }
+
+    private int link(int from, int to, int count) {
+        if (graph.canStep(from, to)) neighbours[count++] = to;
+        return count;
+    }
+
+    /**
+     * Binary min-heap of cells, each packed with its priority into a single long.
+     */
+    private static class Heap {
+        private long[] heap = new long[64];
+        private int size;
+
+        void add(int priority, int cell) {
+            if (size == heap.length) heap = Arrays.copyOf(heap, size << 1);
+            long entry = (long) priority << 32 | cell;
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent] <= entry) break;
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = entry;
+        }
+
+        /** @return the entry of least priority, see {@link #cell(long)} and {@link #priority(long)} */
+        long poll() {
+            long entry = heap[0];
+            long last = heap[--size];
+            int i = 0;
+            for (int child = 1; child < size; child = 2 * i + 1) {
+                if (child + 1 < size && heap[child + 1] < heap[child]) ++child;
+                if (last <= heap[child]) break;
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = last;
+            return entry;
+        }
+
+        static int cell(long entry) {
+            return (int) entry;
+        }
+
+        static int priority(long entry) {
+            return (int) (entry >> 32);
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package advent.graph;
+
+import java.util.NoSuchElementException;
+
+/**
+ * FIFO of primitive ints over a growable ring buffer.
+ */
+public class IntQueue {
+    private int[] ring;
+    private int head, size;
+
+    public IntQueue() {
+        this(16);
+    }
+
+    public IntQueue(int capacity) {
+        ring = new int[Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1];
+    }
+
+    public void add(int value) {
+        if (size == ring.length) grow();
+        ring[(head + size++) & (ring.length - 1)] = value;
+    }
+
+    public int poll() {
+        if (size == 0) throw new NoSuchElementException();
+        int value = ring[head];
+        head = (head + 1) & (ring.length - 1);
+        --size;
+        return value;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        head = size = 0;
+    }
+
+    private void grow() {
+        int[] grown = new int[ring.length << 1];
+        for (int i = 0; i < size; ++i) grown[i] = ring[(head + i) & (ring.length - 1)];
+        ring = grown;
+        head = 0;
+    }
+}
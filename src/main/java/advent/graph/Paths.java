@@ -0,0 +1,72 @@
+package advent.graph;
+
+import java.util.Arrays;
+import java.util.OptionalInt;
+
+/**
+ * Outcome of a {@link GridSearch}: distances from the start, and predecessors when asked for.
+ * <p>
+ * When the search stopped on a goal, cells it had not settled yet only hold upper bounds.
+ */
+public final class Paths {
+    public static final int UNREACHED = -1;
+
+    private final int[] distances;
+    private final int[] predecessors;
+    private int goal = UNREACHED;
+
+    Paths(int cells, boolean tracePaths) {
+        distances = new int[cells];
+        Arrays.fill(distances, UNREACHED);
+        if (tracePaths) {
+            predecessors = new int[cells];
+            Arrays.fill(predecessors, UNREACHED);
+        } else {
+            predecessors = null;
+        }
+    }
+
+    /** @return steps cost from the start, or {@link #UNREACHED} */
+    public int distance(int cell) {
+        return distances[cell];
+    }
+
+    public boolean reached(int cell) {
+        return distances[cell] != UNREACHED;
+    }
+
+    /** @return the goal the search stopped on, if any */
+    public OptionalInt goal() {
+        return goal == UNREACHED ? OptionalInt.empty() : OptionalInt.of(goal);
+    }
+
+    /** @return distance to the goal the search stopped on, if any */
+    public OptionalInt goalDistance() {
+        return goal == UNREACHED ? OptionalInt.empty() : OptionalInt.of(distances[goal]);
+    }
+
+    /**
+     * @return cells from the start to {@code cell} (both included), empty when unreached
+     * @throws IllegalStateException if the search did not trace paths
+     */
+    public int[] path(int cell) {
+        if (predecessors == null) throw new IllegalStateException("paths were not traced");
+        if (!reached(cell)) return new int[0];
+        int length = 1;
+        for (int c = cell; predecessors[c] != UNREACHED; c = predecessors[c]) ++length;
+        int[] path = new int[length];
+        for (int c = cell, i = length - 1; i >= 0; c = predecessors[c], --i) path[i] = c;
+        return path;
+    }
+
+    boolean improve(int cell, int distance, int from) {
+        if (distances[cell] != UNREACHED && distances[cell] <= distance) return false;
+        distances[cell] = distance;
+        if (predecessors != null) predecessors[cell] = from;
+        return true;
+    }
+
+    void stopOn(int goal) {
+        this.goal = goal;
+    }
+}
@@ -1,9 +1,9 @@
 package advent.y2015;
 
+import advent.Solver;
+
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -16,30 +16,34 @@ import java.util.stream.Stream;
 
 import static java.nio.charset.Charset.defaultCharset;
 
-public class Ex19 {
+public class Ex19 implements Solver {
 	private static final Pattern REGEX_TRANS = Pattern.compile("^(\\w+) => (\\w+)$");
 	private final List<Transfo> transfos = new ArrayList<>();
+	private String baseMolecule;
 
-	public static void main(String[] args) throws IOException, URISyntaxException {
-		URI input = Ex19.class.getResource("ex19.input.txt").toURI();
-		Ex19 ex = new Ex19();
-		try (BufferedReader reader = Files.newBufferedReader(Path.of(input), defaultCharset())) {
+	@Override
+	public void parse(Path input) throws IOException {
+		try (BufferedReader reader = Files.newBufferedReader(input, defaultCharset())) {
 			String line = reader.readLine();
 			while (!line.isEmpty()) {
-				ex.register(line);
+				register(line);
 				line = reader.readLine();
 			}
-			String baseMolecule = reader.readLine();
-			Set<String> molecules = new HashSet<>();
-			for (int i = 0; i < baseMolecule.length(); ++i) {
-				final int idx = i; // ̂pour la Closure
-				ex.transfos.stream()
-						.flatMap(transfo -> transfo.apply(baseMolecule, idx))
-						.forEach(molecules::add);
-			}
-			//System.out.println(molecules);
-			System.out.printf("%s distinct after transfo", molecules.size());
+			baseMolecule = reader.readLine();
+		}
+	}
+
+	@Override
+	public Integer part1() {
+		Set<String> molecules = new HashSet<>();
+		for (int i = 0; i < baseMolecule.length(); ++i) {
+			final int idx = i; // ̂pour la Closure
+			transfos.stream()
+					.flatMap(transfo -> transfo.apply(baseMolecule, idx))
+					.forEach(molecules::add);
 		}
+		//System.out.println(molecules);
+		return molecules.size();
 	}
 
 	private void register(String raw) {
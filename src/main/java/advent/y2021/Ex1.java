@@ -1,13 +1,8 @@
 package advent.y2021;
 
-import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.util.function.Consumer;
+import advent.ViewSolver;
 
-public class Ex1 implements Consumer<String> {
+public class Ex1 implements ViewSolver {
 
 	private final int[] window = new int[4];
 	private boolean ready = false;
@@ -15,8 +10,8 @@ public class Ex1 implements Consumer<String> {
 	private int incs = 0;
 
 	@Override
-	public void accept(String valStr) {
-		int val = Integer.parseInt(valStr, 10);
+	public void accept(CharSequence valStr) {
+		int val = Integer.parseInt(valStr, 0, valStr.length(), 10);
 		window[curr] = val;
 		curr = (curr + 1) % 4;
 		if (!ready && curr == 0) ready = true;
@@ -32,6 +27,11 @@ public class Ex1 implements Consumer<String> {
 		}
 	}
 
+	@Override
+	public Integer part2() {
+		return incs;
+	}
+
 	private int sum(int start) {
 		int sum = 0;
 		for (int i = 0; i < 3; ++i) {
@@ -39,11 +39,4 @@ public class Ex1 implements Consumer<String> {
 		}
 		return sum;
 	}
-
-	public static void main(String[] args) throws IOException, URISyntaxException {
-		Ex1 consumer = new Ex1();
-		URI input = consumer.getClass().getResource("ex1.input.txt").toURI();
-		Files.readAllLines(Path.of(input)).forEach(consumer);
-		System.out.println(consumer.incs);
-	}
 }
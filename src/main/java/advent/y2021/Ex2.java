@@ -1,15 +1,11 @@
 package advent.y2021;
 
-import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.util.function.Consumer;
+import advent.LineSolver;
+
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-public class Ex2 implements Consumer<String> {
+public class Ex2 implements LineSolver {
 
 	private static final Pattern DIRECTION = Pattern.compile("^(up|down|forward) (\\d+)$");
 
@@ -31,6 +27,11 @@ public class Ex2 implements Consumer<String> {
 		}
 	}
 
+	@Override
+	public Integer part2() {
+		return h * d;
+	}
+
 	private void down(int x) {
 		aim += x;
 	}
@@ -41,11 +42,4 @@ public class Ex2 implements Consumer<String> {
 	private void up(int x) {
 		aim -= x;
 	}
-
-	public static void main(String[] args) throws IOException, URISyntaxException {
-		Ex2 consumer = new Ex2();
-		URI input = consumer.getClass().getResource("ex2.input.txt").toURI();
-		Files.readAllLines(Path.of(input)).forEach(consumer);
-		System.out.printf("(%d,%d) » %d", consumer.h, consumer.d, consumer.h * consumer.d);
-	}
 }
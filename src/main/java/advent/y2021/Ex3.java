@@ -2,28 +2,32 @@ package advent.y2021;
 
 import advent.Binary;
 import advent.Debug;
+import advent.Solver;
 
 import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.PrimitiveIterator;
 
-public class Ex3 {
+public class Ex3 implements Solver {
 	private static final Debug DEBUG = Debug.ON;
 
-	private final List<String> lines;
-	private Ex3(List<String> lines) {
-		this.lines = lines;
+	private List<String> lines;
+
+	@Override
+	public void parse(Path input) throws IOException {
+		lines = Files.readAllLines(input);
+	}
+
+	@Override
+	public Integer part1() {
+		return powerConsumption();
 	}
 
-	public static void main(String[] args) throws IOException, URISyntaxException {
-		URI input = Ex3.class.getResource("ex3.input.txt").toURI();
-		Ex3 ex = new Ex3(Files.readAllLines(Path.of(input)));
-		System.out.println("pow=" + ex.powerConsumption());
-		System.out.println("life=" + ex.lifeSupportRating());
+	@Override
+	public Integer part2() {
+		return lifeSupportRating();
 	}
 
 	private int powerConsumption() {
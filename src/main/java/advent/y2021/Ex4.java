@@ -1,11 +1,10 @@
 package advent.y2021;
 
 import advent.Debug;
+import advent.Solver;
 
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -20,18 +19,17 @@ import java.util.stream.IntStream;
 
 import static java.nio.charset.Charset.defaultCharset;
 
-public class Ex4 {
+public class Ex4 implements Solver {
 	private static final Debug DEBUG = Debug.ON;
 
 	private String draws;
 	private final List<Grid> grids = new ArrayList<>();
 
-	public static void main(String[] args) throws IOException, URISyntaxException {
-		URI input = Ex4.class.getResource("ex4.input.txt").toURI();
-		Ex4 ex = new Ex4();
+	@Override
+	public void parse(Path input) throws IOException {
 		int gridId = 1;
-		try (BufferedReader reader = Files.newBufferedReader(Path.of(input), defaultCharset())) {
-			ex.draws = reader.readLine();
+		try (BufferedReader reader = Files.newBufferedReader(input, defaultCharset())) {
+			draws = reader.readLine();
 			String line = reader.readLine();
 			while (line != null) {
 				Grid g = new Grid(gridId++);
@@ -40,14 +38,15 @@ public class Ex4 {
 				g.load(reader.readLine());
 				g.load(reader.readLine());
 				g.load(reader.readLine());
-				ex.grids.add(g);
+				grids.add(g);
 				line = reader.readLine();
 			}
 		}
-		ex.run();
 	}
 
-	private void run() {
+	/** score of the last grid to BINGO */
+	@Override
+	public Integer part2() {
 		Set<Integer> bingoed = new HashSet<>();
 		for (String raw : draws.split(",")) {
 			Draw mark = new Draw(Integer.parseInt(raw, 10));
@@ -57,10 +56,10 @@ public class Ex4 {
 			bingoed.addAll(mark.bingoed);
 
 			if (bingoed.size() == grids.size()) {
-				System.out.printf("last BINGO scored %d%n", mark.lastScore());
-				return;
+				return mark.lastScore();
 			}
 		}
+		throw new IllegalStateException("some grids never bingo");
 	}
 
 	private static class Draw implements Consumer<Grid> {
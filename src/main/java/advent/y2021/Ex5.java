@@ -1,12 +1,8 @@
 package advent.y2021;
 
 import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Spliterator;
 import java.util.function.Consumer;
@@ -16,27 +12,28 @@ import java.util.regex.Pattern;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+import advent.MappedLines;
+import advent.Solver;
 import advent.SpecialInt;
 import advent.SpecialInt.X;
 import advent.SpecialInt.Y;
 
-public class Ex5 {
+public class Ex5 implements Solver {
 
 	private static final Pattern REGEX_LINE = Pattern.compile("^(\\d+),(\\d+) -> (\\d+),(\\d+)$");
 
 	private final Map<Coor, Integer> weights = new HashMap<>();
 
-	public Ex5(List<String> rawLines) {
-		rawLines.stream()
-				.map(this::parse)
-				.flatMap(Line::stream)
-				.forEach(coor -> weights.merge(coor, 1, Integer::sum));
+	@Override
+	public void parse(Path input) throws IOException {
+		MappedLines.forEach(input, raw -> parse(raw).stream()
+				.forEach(coor -> weights.merge(coor, 1, Integer::sum)));
 	}
 
-	public static void main(String[] args) throws IOException, URISyntaxException {
-		URI input = Ex5.class.getResource("ex5.input.txt").toURI();
-		Ex5 ex = new Ex5(Files.readAllLines(Path.of(input)));
-		System.out.printf("%d overlaps%n", ex.countOverlaps());
+	/** overlaps, diagonals included */
+	@Override
+	public Long part2() {
+		return countOverlaps();
 	}
 
 	private long countOverlaps() {
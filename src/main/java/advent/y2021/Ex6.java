@@ -1,11 +1,10 @@
 package advent.y2021;
 
 import advent.Debug;
+import advent.Solver;
 
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -16,33 +15,46 @@ import java.util.stream.Stream;
 import static java.nio.charset.Charset.defaultCharset;
 import static java.util.stream.Collectors.joining;
 
-public class Ex6 {
+public class Ex6 implements Solver {
 	private static final Debug DEBUG = Debug.ON;
 
 	private final List<Jellyfish> fishes = new ArrayList<>();
-	private final long[] populations = new long[9];
+	private final long[] initial = new long[9];
+	private long[] populations;
 
-	public static void main(String[] args) throws IOException, URISyntaxException {
-		URI input = Ex6.class.getResource("ex6.input.txt").toURI();
-		Ex6 ex = new Ex6();
-		try (BufferedReader reader = Files.newBufferedReader(Path.of(input), defaultCharset())) {
+	@Override
+	public void parse(Path input) throws IOException {
+		try (BufferedReader reader = Files.newBufferedReader(input, defaultCharset())) {
 			Arrays.stream(reader.readLine().split(","))
 					.map(Byte::parseByte)
 					/*.map(Jellyfish::new)
-					.forEach(ex.fishes::add);*/
-					.forEach(idx -> ++ex.populations[idx]);
+					.forEach(fishes::add);*/
+					.forEach(idx -> ++initial[idx]);
 		}
-		DEBUG.trace("initial: %s%n", ex.print());
-		final int stop = 256;
+	}
+
+	@Override
+	public Long part1() {
+		return totalAfter(80);
+	}
+
+	@Override
+	public Long part2() {
+		return totalAfter(256);
+	}
+
+	private long totalAfter(int stop) {
+		populations = initial.clone();
+		DEBUG.trace("initial: %s%n", print());
 		for (int cycle = 1; cycle <= stop; ++cycle) {
-			ex.tick(cycle);
+			tick(cycle);
 		}
-		//int total = ex.fishes.size();
-		long total = ex.populations[0];
-		for (int i = 1; i < ex.populations.length; ++i) {
-			total += ex.populations[i];
+		//int total = fishes.size();
+		long total = populations[0];
+		for (int i = 1; i < populations.length; ++i) {
+			total += populations[i];
 		}
-		System.out.printf("%d total after %d cycles%n", total, stop);
+		return total;
 	}
 
 	private void tick(int cycle) {
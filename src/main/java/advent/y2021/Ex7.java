@@ -1,11 +1,10 @@
 package advent.y2021;
 
 import advent.Debug;
+import advent.Solver;
 
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
@@ -13,28 +12,30 @@ import java.util.Arrays;
 import static java.nio.charset.Charset.defaultCharset;
 import static java.util.stream.Collectors.joining;
 
-public class Ex7 {
+public class Ex7 implements Solver {
 	private static final Debug DEBUG = Debug.OFF;
 
-	private final Horizontals horizontals;
-	Ex7(Horizontals horizontals) {
-		this.horizontals = horizontals;
-	}
+	private final Horizontals horizontals = new Horizontals();
 
-	public static void main(String[] args) throws IOException, URISyntaxException {
-		URI input = Ex7.class.getResource("ex7.input.txt").toURI();
-		Horizontals horizontals = new Horizontals();
-		try (BufferedReader reader = Files.newBufferedReader(Path.of(input), defaultCharset())) {
+	@Override
+	public void parse(Path input) throws IOException {
+		try (BufferedReader reader = Files.newBufferedReader(input, defaultCharset())) {
 			Arrays.stream(reader.readLine().split(","))
 					.map(Integer::parseInt)
 					.forEach(horizontals::register);
 		}
 		DEBUG.trace("%s%n", horizontals);
-		Ex7 ex = new Ex7(horizontals);
-		MinFuel minFuel = ex.findMinFuel2();
-		System.out.printf("min fuel %s", minFuel);
 	}
 
+	@Override
+	public Integer part1() {
+		return findMinFuel().qty();
+	}
+
+	@Override
+	public Integer part2() {
+		return findMinFuel2().qty();
+	}
 
 	private record Offset(int index, int sumBefore, int nbBefore) {
 		Offset next(int nbCurrent) {
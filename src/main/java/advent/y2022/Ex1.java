@@ -1,26 +1,22 @@
 package advent.y2022;
 
-import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import advent.ViewSolver;
+
 import java.util.Arrays;
 import java.util.IntSummaryStatistics;
-import java.util.function.Consumer;
 
-public class Ex1 implements Consumer<String> {
+public class Ex1 implements ViewSolver {
     private final int[] max = {-1, -1, -1};
     private int current = -1;
 
     @Override
-    public void accept(String cal) {
-        if ("".equals(cal)) {
+    public void accept(CharSequence cal) {
+        if (cal.isEmpty()) {
             current = -1;
             return;
         }
 
-        int v = Integer.parseInt(cal, 10);
+        int v = Integer.parseInt(cal, 0, cal.length(), 10);
         int last = current;
         if (last == -1) {
             current = v;
@@ -39,14 +35,18 @@ public class Ex1 implements Consumer<String> {
             }
         }
     }
-    IntSummaryStatistics stats() {
-        return Arrays.stream(max).summaryStatistics();
+
+    @Override
+    public Integer part1() {
+        return max[0];
     }
 
-    public static void main(String[] args) throws IOException, URISyntaxException {
-        Ex1 consumer = new Ex1();
-        URI input = consumer.getClass().getResource("ex1.input.txt").toURI();
-        Files.readAllLines(Path.of(input)).forEach(consumer);
-        System.out.println(consumer.stats());
+    @Override
+    public Long part2() {
+        return stats().getSum();
+    }
+
+    IntSummaryStatistics stats() {
+        return Arrays.stream(max).summaryStatistics();
     }
 }
@@ -1,19 +1,15 @@
 package advent.y2022;
 
 import advent.Debug;
+import advent.LineSolver;
 
-import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.function.IntBinaryOperator;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
-public class Ex10 {
+public class Ex10 implements LineSolver {
     private static final Debug DEBUG = Debug.OFF;
 
     private static final IntBinaryOperator NOOP = (c, x) -> x;
@@ -23,13 +19,17 @@ public class Ex10 {
      */
     private static final IntBinaryOperator PAD = NOOP;
 
-    public static void main(String[] args) throws IOException, URISyntaxException {
-        URI input = Ex10.class.getResource("ex10.input.txt").toURI();
-        final Screen screen = new Screen();
-        Files.readAllLines(Path.of(input)).stream()
-                .flatMap(Ex10::parse)
-                .forEach(screen::tick);
-        System.out.println(screen);
+    private final Screen screen = new Screen();
+
+    @Override
+    public void accept(String instruction) {
+        parse(instruction).forEach(screen::tick);
+    }
+
+    /** rendered CRT */
+    @Override
+    public String part2() {
+        return screen.toString();
     }
 
     private static Stream<IntBinaryOperator> parse(String instruction) {
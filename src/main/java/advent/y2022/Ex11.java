@@ -1,31 +1,80 @@
 package advent.y2022;
 
 import advent.Debug;
+import advent.LineSolver;
 
-import java.io.IOException;
 import java.math.BigInteger;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.*;
-import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
 
-public class Ex11 {
+public class Ex11 implements LineSolver {
 
     private static final Debug DEBUG = Debug.OFF;
+    private static final long ROUNDS = 10_000;
 
-    private final Set<BigInteger> candidateDivisors = new TreeSet<>();
+    /** how to play the requested number of rounds */
+    public enum Mode {
+        /** play every round, all the monkeys in turn */
+        TURNS,
+        /**
+         * follow each item alone until its trajectory cycles, then extrapolate the remaining rounds;
+         * item states are packed in a long, so ppcm × monkeys must not exceed {@link Long#MAX_VALUE}
+         */
+        CYCLES,
+        /** play the rounds item by item, the items being shared among all cores; packed as for {@link #CYCLES} */
+        PARALLEL
+    }
+
+    private final Mode mode;
+    private final long rounds;
+    private final Set<Long> candidateDivisors = new TreeSet<>();
     private final List<Monkey> monkeys = new ArrayList<>();
     private Monkey.Builder monkeyBuilder;
 
-    private BigInteger computePpcm() {
-        DEBUG.trace("cadidate currentDivisors: %s%n", candidateDivisors);
-        return candidateDivisors.stream()
-                .reduce(BigInteger.ONE, BigInteger::multiply);
+    public Ex11() {
+        this(Mode.TURNS);
+    }
+
+    public Ex11(Mode mode) {
+        this(mode, ROUNDS);
+    }
+
+    /** @param rounds how many rounds are played for {@link #part2()} */
+    public Ex11(Mode mode, long rounds) {
+        if (rounds < 0) throw new IllegalArgumentException("negative rounds: " + rounds);
+        this.mode = mode;
+        this.rounds = rounds;
+    }
+
+    /**
+     * stress matters only modulo every divisor, hence modulo their least common multiple
+     * @throws IllegalArgumentException if it does not fit in a long, where stress is kept
+     */
+    private long computePpcm() {
+        DEBUG.trace("candidate divisors: %s%n", candidateDivisors);
+        long ppcm = 1;
+        for (long divisor : candidateDivisors) {
+            long factor = divisor / gcd(ppcm, divisor);
+            if (ppcm > Long.MAX_VALUE / factor) {
+                throw new IllegalArgumentException("least common multiple of divisors %s exceeds %d"
+                        .formatted(candidateDivisors, Long.MAX_VALUE));
+            }
+            ppcm *= factor;
+        }
+        return ppcm;
     }
 
-    private void load(String input) {
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long r = a % b;
+            a = b;
+            b = r;
+        }
+        return a;
+    }
+
+    @Override
+    public void accept(String input) {
         if (input.isEmpty()) return;
 
         if (input.startsWith("Monkey ")) {
@@ -37,7 +86,7 @@ public class Ex11 {
         } else if (input.startsWith("  Operation: new = old ")) {
             monkeyBuilder.withStressEvo(input.substring(23));
         } else if (input.startsWith("  Test: divisible by ")) {
-            BigInteger div = new BigInteger(input.substring(21));
+            long div = Long.parseLong(input.substring(21));
             monkeyBuilder.withGiveDivisor(div);
             candidateDivisors.add(div);
         } else if (input.startsWith("    If true: throw to monkey ")) {
@@ -53,74 +102,54 @@ public class Ex11 {
         }
     }
 
-    public static void main(String[] args) throws IOException, URISyntaxException {
-        Ex11 ex = new Ex11();
-        URI input = ex.getClass().getResource("ex11.input.txt").toURI();
-        Files.readAllLines(Path.of(input)).forEach(ex::load);
-        BigInteger ppcm = ex.computePpcm();
-        DEBUG.trace("initial: %s", ex.monkeys);
-        for (int i = 0; i < 10_000; ++i) {
-            for (Monkey m : ex.monkeys) {
-                m.takeTurn(ex.monkeys, ppcm);
-            }
-            if (i == 19) DEBUG.trace("20:%s", ex.monkeys);
+    /** monkey business after 10k rounds (unless told otherwise), without relief */
+    @Override
+    public BigInteger part2() {
+        Program program = new Program(monkeys, computePpcm());
+        DEBUG.trace("initial: %s", program);
+        if (mode == Mode.CYCLES) return business(program.extrapolate(rounds));
+        if (mode == Mode.PARALLEL) return business(program.playApart(rounds));
+        for (long i = 0; i < rounds; ++i) {
+            program.round();
+            if (i == 19) DEBUG.trace("20:%s", program);
             if (i % 100 == 99) DEBUG.lifePulse();
-            if (i % 1000 == 999) DEBUG.trace("%d:%s", i+1, ex.monkeys);
+            if (i % 1000 == 999) DEBUG.trace("%d:%s", i+1, program);
         }
         DEBUG.trace("---%n");
+        return business(program.inspected);
+    }
+
+    /** @return product of the two highest inspection counts */
+    private static BigInteger business(long[] inspected) {
         long max1 = -1;
         long max2 = -1;
-        for (Monkey m : ex.monkeys) {
-            DEBUG.trace("[%d,%d] Monkey %d inspected items %d times.", max1, max2, m.id, m.inspected);
-            if (max1 < m.inspected) {
+        for (int id = 0; id < inspected.length; ++id) {
+            DEBUG.trace("[%d,%d] Monkey %d inspected items %d times.", max1, max2, id, inspected[id]);
+            if (max1 < inspected[id]) {
                 if (max2 < max1) max2 = max1;
-                max1 = m.inspected;
-            } else if (max2 < m.inspected) {
-                max2 = m.inspected;
+                max1 = inspected[id];
+            } else if (max2 < inspected[id]) {
+                max2 = inspected[id];
             }
         }
-        BigInteger score = BigInteger.valueOf(max1).multiply(BigInteger.valueOf(max2));
-        System.out.printf("%d×%d=%d%n", max1, max2, score);
+        DEBUG.trace("%d×%d", max1, max2);
+        return BigInteger.valueOf(max1).multiply(BigInteger.valueOf(max2));
     }
 
-    private static class Monkey {
-        private final int id;
-        private long inspected;
-        private final List<Item> items;
-        private final UnaryOperator<BigInteger> stressEvolution;
-        private final GiveRule giveRule;
-
-        public Monkey(int id, UnaryOperator<BigInteger> stressEvolution, GiveRule giveRule) {
-            this.giveRule = giveRule;
-            this.id = id;
-            inspected = 0;
-            items = new ArrayList<>();
-            this.stressEvolution = stressEvolution;
-        }
-
-        public void receive(Item it) {
-            items.add(it);
-        }
-
-        public void takeTurn(List<Monkey> all, BigInteger ppcm) {
-            if (items.isEmpty()) return;
-            for (Item it : items) {
-                ++inspected;
-                giveRule.apply(it.evolve(stressEvolution, ppcm), all);
-            }
-            items.clear();
-        }
+    private enum Operation {
+        ADD, MULTIPLY, SQUARE
+    }
 
-        @Override
-        public String toString() {
-            return String.format("%n  m%d(%d)%s", id, inspected, items);
-        }
+    /** parsed monkey, as in the notes */
+    private record Monkey(int id, long[] items, Operation operation, long operand,
+                          long divisor, int truthyId, int falsyId) {
 
         private static class Builder {
             private final int id;
             private String[] items;
-            private UnaryOperator<BigInteger> stressEvo;
-            private BigInteger giveDivisor;
+            private Operation operation;
+            private long operand;
+            private long giveDivisor;
             private int giveTruthy, giveFalsy;
 
             public Builder(int id) {
@@ -128,12 +157,11 @@ public class Ex11 {
             }
 
             public Monkey build() {
-                Monkey m = new Monkey(id,
-                        stressEvo,
-                        new GiveRule(giveDivisor, giveTruthy, giveFalsy)
+                return new Monkey(id,
+                        Arrays.stream(items).mapToLong(Long::parseLong).toArray(),
+                        operation, operand,
+                        giveDivisor, giveTruthy, giveFalsy
                 );
-                Arrays.stream(items).map(Item::parse).forEach(m::receive);
-                return m;
             }
 
             public Builder withItems(String items) {
@@ -142,17 +170,17 @@ public class Ex11 {
             }
 
             public Builder withStressEvo(String stressEvo) {
-                if (stressEvo.equals("* old")) this.stressEvo = a -> a.pow(2);
+                if (stressEvo.equals("* old")) this.operation = Operation.SQUARE;
                 else {
-                    final BigInteger operand = new BigInteger(stressEvo.substring(2));
-                    if (stressEvo.startsWith("* ")) this.stressEvo = a -> a.multiply(operand);
-                    else if (stressEvo.startsWith("+ ")) this.stressEvo = a -> a.add(operand);
+                    this.operand = Long.parseLong(stressEvo.substring(2));
+                    if (stressEvo.startsWith("* ")) this.operation = Operation.MULTIPLY;
+                    else if (stressEvo.startsWith("+ ")) this.operation = Operation.ADD;
                     else throw new UnsupportedOperationException("neither add nor multiply! " + stressEvo);
                 }
                 return this;
             }
 
-            public Builder withGiveDivisor(BigInteger giveDivisor) {
+            public Builder withGiveDivisor(long giveDivisor) {
                 this.giveDivisor = giveDivisor;
                 return this;
             }
@@ -169,40 +197,205 @@ public class Ex11 {
         }
     }
 
-    private static class GiveRule {
+    /**
+     * Monkeys compiled into flat tables indexed by monkey id, run by a single loop:
+     * no per-monkey object nor lambda on the way, every call site stays monomorphic.
+     */
+    private static class Program {
+        private final long ppcm;
+        private final Operation[] operations;
+        private final long[] operands, divisors;
+        private final int[] truthyIds, falsyIds;
+        /** stress of the items each monkey holds, in {@code items[id][0 .. sizes[id][} */
+        private final long[][] items;
+        private final int[] sizes;
+        private final long[] inspected;
+
+        Program(List<Monkey> monkeys, long ppcm) {
+            final int n = monkeys.size();
+            this.ppcm = ppcm;
+            operations = new Operation[n];
+            operands = new long[n];
+            divisors = new long[n];
+            truthyIds = new int[n];
+            falsyIds = new int[n];
+            items = new long[n][];
+            sizes = new int[n];
+            inspected = new long[n];
+            final int total = monkeys.stream().mapToInt(m -> m.items().length).sum();
+            for (Monkey m : monkeys) {
+                operations[m.id()] = m.operation();
+                operands[m.id()] = m.operand();
+                divisors[m.id()] = m.divisor();
+                truthyIds[m.id()] = m.truthyId();
+                falsyIds[m.id()] = m.falsyId();
+                // any monkey may end up holding every item
+                items[m.id()] = Arrays.copyOf(m.items(), total);
+                sizes[m.id()] = m.items().length;
+            }
+        }
 
-        private final BigInteger divisor;
-        private final int truthyId, falsyId;
-        public GiveRule(BigInteger divisor, int truthyId, int falsyId) {
-            this.divisor = divisor;
-            this.truthyId = truthyId;
-            this.falsyId = falsyId;
+        /**
+         * Items never interact: a monkey inspects each item it holds whatever the others are,
+         * so the inspection counts are the sum, item by item, of its trajectory alone.
+         */
+        long[] extrapolate(long rounds) {
+            long[] counts = new long[items.length];
+            for (long state : states()) count(state, rounds, counts);
+            return counts;
         }
 
-        public void apply(Item it, List<Monkey> all) {
-            int monkeyId = it.divisible(divisor) ? truthyId : falsyId;
-            all.get(monkeyId).receive(it);
+        /** @return the {@link #step(long, long[], long) state} of every item */
+        private long[] states() {
+            if (ppcm > Long.MAX_VALUE / items.length) {
+                throw new IllegalArgumentException("cannot pack item states in a long: ppcm %d times %d monkeys exceeds %d"
+                        .formatted(ppcm, items.length, Long.MAX_VALUE));
+            }
+            long[] states = new long[Arrays.stream(sizes).sum()];
+            for (int id = 0, item = 0; id < items.length; ++id) {
+                for (int i = 0; i < sizes[id]; ++i) {
+                    // only stress modulo ppcm matters, and it keeps states within bounds
+                    states[item++] = Math.floorMod(items[id][i], ppcm) * items.length + id;
+                }
+            }
+            return states;
         }
 
-    }
+        /**
+         * Counts the inspections of a single item, from its {@link #step(long, long[], long) state}:
+         * Brent's cycle detection finds where its trajectory loops, on primitive states only.
+         * Periods are counted in longs, bound by the ppcm × monkeys states there are.
+         */
+        private void count(long start, long rounds, long[] counts) {
+            // period first: the hare runs until it meets the tortoise, left behind at each power of 2
+            long power = 1, period = 1;
+            long tortoise = start, hare = step(start, null, 0);
+            for (long steps = 1; tortoise != hare; ++steps) {
+                if (steps >= rounds) {
+                    // no loop within the requested rounds
+                    play(start, rounds, counts, 1);
+                    return;
+                }
+                if (power == period) {
+                    tortoise = hare;
+                    power <<= 1;
+                    period = 0;
+                }
+                hare = step(hare, null, 0);
+                ++period;
+            }
+            // then where the loop starts: both one period apart from the start, until they meet
+            long loop = 0;
+            tortoise = start;
+            hare = play(start, period, null, 0);
+            for (; tortoise != hare; ++loop) {
+                tortoise = step(tortoise, null, 0);
+                hare = step(hare, null, 0);
+            }
+            DEBUG.trace("item cycles every %d rounds from round %d", period, loop);
+            if (rounds <= loop + period) {
+                play(start, rounds, counts, 1);
+                return;
+            }
+            final long periods = (rounds - loop) / period;
+            final long rest = (rounds - loop) % period;
+            long state = play(start, loop, counts, 1);
+            state = play(state, rest, counts, periods + 1);
+            play(state, period - rest, counts, periods);
+        }
 
-    private record Item(BigInteger stress) {
+        /** @return the state after {@code rounds} {@link #step(long, long[], long) steps} */
+        private long play(long state, long rounds, long[] counts, long times) {
+            for (long r = 0; r < rounds; ++r) state = step(state, counts, times);
+            return state;
+        }
 
-        static Item parse(String encoded) {
-            return new Item(new BigInteger(encoded));
+        /**
+         * Plays a single round for an item, from the monkey holding it at the start of it,
+         * with the very same turn order as {@link #round()}.
+         *
+         * @param state  the stress of the item (under ppcm) times the number of monkeys, plus the holder
+         * @param counts where each inspection is counted {@code times}, if any
+         * @return the state of the item for the next round
+         */
+        private long step(long state, long[] counts, long times) {
+            int id = (int) (state % items.length);
+            long stress = state / items.length;
+            while (true) {
+                if (counts != null) counts[id] += times;
+                stress = inspect(id, stress);
+                int to = stress % divisors[id] == 0 ? truthyIds[id] : falsyIds[id];
+                // monkeys further in the round play it again this very round
+                if (to <= id) return stress * items.length + to;
+                id = to;
+            }
         }
 
-        private boolean divisible(BigInteger divisor) {
-            return stress.mod(divisor).equals(BigInteger.ZERO);
+        /**
+         * Items played apart from each other, spread over the available cores:
+         * each worker counts its own inspections, all summed up at the end.
+         */
+        long[] playApart(long rounds) {
+            final long[] states = states();
+            return IntStream.range(0, states.length).parallel()
+                    .collect(() -> new long[items.length],
+                            (counts, item) -> play(states[item], rounds, counts, 1),
+                            Program::merge);
         }
 
-        public Item evolve(UnaryOperator<BigInteger> stressEvolution, BigInteger ppcm) {
-            return new Item(stressEvolution.apply(stress).mod(ppcm));
+        private static void merge(long[] counts, long[] other) {
+            for (int id = 0; id < counts.length; ++id) counts[id] += other[id];
+        }
+
+        void round() {
+            for (int id = 0; id < items.length; ++id) {
+                final long[] held = items[id];
+                final int size = sizes[id];
+                // a monkey never throws to itself: no item is added meanwhile
+                for (int i = 0; i < size; ++i) {
+                    long stress = inspect(id, held[i]);
+                    int to = stress % divisors[id] == 0 ? truthyIds[id] : falsyIds[id];
+                    items[to][sizes[to]++] = stress;
+                }
+                inspected[id] += size;
+                sizes[id] = 0;
+            }
+        }
+
+        /** stress stays under ppcm: only a ppcm beyond √Long.MAX_VALUE may overflow, then worked out with BigInteger */
+        long inspect(int id, long stress) {
+            return switch (operations[id]) {
+                case ADD -> addMod(stress, operands[id]);
+                case MULTIPLY -> multiplyMod(stress, operands[id]);
+                case SQUARE -> multiplyMod(stress, stress);
+            };
+        }
+
+        private long addMod(long a, long b) {
+            long sum = a + b;
+            // overflowed iff the sum lost the sign both operands share
+            if (((a ^ sum) & (b ^ sum)) >= 0) return Math.floorMod(sum, ppcm);
+            return mod(BigInteger.valueOf(a).add(BigInteger.valueOf(b)));
+        }
+
+        private long multiplyMod(long a, long b) {
+            long low = a * b;
+            // fits iff the high half only extends the sign of the low one
+            if (Math.multiplyHigh(a, b) == low >> 63) return Math.floorMod(low, ppcm);
+            return mod(BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)));
+        }
+
+        private long mod(BigInteger evolved) {
+            return evolved.mod(BigInteger.valueOf(ppcm)).longValueExact();
         }
 
         @Override
         public String toString() {
-            return String.valueOf(stress);
+            StringBuilder s = new StringBuilder();
+            for (int id = 0; id < items.length; ++id) {
+                s.append(String.format("%n  m%d(%d)%s", id, inspected[id], Arrays.toString(Arrays.copyOf(items[id], sizes[id]))));
+            }
+            return s.toString();
         }
     }
 }
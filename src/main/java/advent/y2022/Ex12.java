@@ -1,246 +1,152 @@
 package advent.y2022;
 
-import advent.Coor;
 import advent.Debug;
-import advent.Walk;
-
-import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.List;
-import java.util.ListIterator;
-import java.util.Optional;
+import advent.LineSolver;
+import advent.graph.GridGraph;
+import advent.graph.GridSearch;
+import advent.graph.Paths;
+
+import java.util.Arrays;
 import java.util.OptionalInt;
-import java.util.Set;
-import java.util.stream.Stream;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+import java.util.stream.IntStream;
 
-public class Ex12 {
+public class Ex12 implements LineSolver {
 
-	private static final Debug INFO = Debug.ON;
 	private static final Debug DEBUG = Debug.OFF;
 
-	public static void main(String[] args) throws IOException, URISyntaxException {
-		URI input = Ex12.class.getResource("ex12.input.txt").toURI();
-		Grid g = new Grid();
-		Files.readAllLines(Path.of(input)).forEach(g::load);
-		int best = g.streamStarts()
-				.map(g::findBestExit)
-				.flatMapToInt(OptionalInt::stream)
-				.min()
-				.orElse(-1);
-		System.out.println("min=" + best);
+	/** how to find the distance from each start to the exit */
+	public enum Mode {
+		/** a single search back from the exit, reaching every start at once */
+		REVERSE,
+		/** a search from each start, kept to check {@link #REVERSE} */
+		PER_START,
+		/** a search from each start, all run in parallel and given up once longer than the best found so far */
+		PARALLEL
 	}
 
-	private static class Walker {
-		private final Grid grid;
-		private Coor current;
-		private final Walk walk;
-		private final Set<Coor> deadEnds;
-
-		public Walker(Grid grid, Coor start, Set<Coor> deadEnds) {
-			this.grid = grid;
-			this.current = start;
-			this.deadEnds = deadEnds;
-			walk = new Walk(current);
-		}
-		private Walker(Walker parent, Coor current) {
-			this.grid = parent.grid;
-			this.current = current;
-			this.deadEnds = parent.deadEnds;
-			walk = new Walk(parent.walk, current);
-		}
-
-		public boolean arrived() {
-			return current.equals(grid.end);
-		}
-
-		public List<Walker> multiStep() {
-			List<Coor> eligibleArrivals = Stream.of(tryUp(), tryDown(), tryLeft(), tryRight())
-						.flatMap(Optional::stream)
-						.toList();
-			//DEBUG.trace("%s can go %s", walk, eligibleArrivals);
-			if (eligibleArrivals.isEmpty()) {
-				DEBUG.lifePulse();
-				walk.forEachStep(deadEnds::add);
-				return List.of();
-			}
-			if (eligibleArrivals.size() == 1) {
-				current = eligibleArrivals.get(0);
-				walk.save(current);
-				return List.of(this);
-			}
-			return eligibleArrivals.stream()
-					.map(sub -> new Walker(this, sub))
-					.toList();
-		}
-
-		public boolean sameLastStep(Walker w) {
-			return current.equals(w.current);
-		}
+	private final Mode mode;
+	private final Grid grid = new Grid();
 
-		private Optional<Coor> eval(Coor candidate) {
-			if (walk.contains(candidate)) return Optional.empty();
-			if (tooSteep(candidate)) return Optional.empty();
-			if (deadEnds.contains(candidate)) return Optional.empty();
-			return Optional.of(candidate);
-		}
+	public Ex12() {
+		this(Mode.REVERSE);
+	}
 
-		private boolean tooSteep(Coor candidate) {
-			return grid.get(candidate) - grid.get(current) > 1;
-		}
+	public Ex12(Mode mode) {
+		this.mode = mode;
+	}
 
-		private Optional<Coor> tryDown() {
-			if (current.y() == 0) return Optional.empty(); // border
-			return eval(current.down());
-		}
+	@Override
+	public void accept(String encoded) {
+		grid.load(encoded);
+	}
 
-		private Optional<Coor> tryLeft() {
-			if (current.x() == 0) return Optional.empty(); // border
-			return eval(current.left());
-		}
+	@Override
+	public Integer part1() {
+		return distanceToExit(grid.start).orElse(-1);
+	}
 
-		private Optional<Coor> tryRight() {
-			if (current.x() == grid.maxX()) return Optional.empty(); // border
-			return eval(current.right());
-		}
+	@Override
+	public Integer part2() {
+		if (mode == Mode.PARALLEL) return parallelBestStart();
+		return grid.streamStarts()
+				.mapToObj(this::distanceToExit)
+				.flatMapToInt(OptionalInt::stream)
+				.min()
+				.orElse(-1);
+	}
 
-		private Optional<Coor> tryUp() {
-			if (current.y() == grid.maxY()) return Optional.empty(); // border
-			return eval(current.up());
-		}
+	private OptionalInt distanceToExit(int start) {
+		return switch (mode) {
+			case REVERSE -> grid.distanceToExit(start);
+			case PER_START, PARALLEL -> grid.findBestExit(start);
+		};
+	}
 
-		private int walked() {
-			return walk.length();
-		}
+	private int parallelBestStart() {
+		final AtomicInteger best = new AtomicInteger(Integer.MAX_VALUE);
+		grid.streamStarts()
+				.parallel()
+				.forEach(start -> grid.findBestExit(start, best::get)
+						.ifPresent(found -> best.accumulateAndGet(found, Math::min)));
+		return best.get() == Integer.MAX_VALUE ? -1 : best.get();
 	}
 
-	private static class Walkers implements Iterable<Walker> {
+	private static class Grid implements GridGraph {
 
-		private final List<Walker> inner = new ArrayList<>();
-		static Walkers of(Walker first) {
-			Walkers w = new Walkers();
-			w.inner.add(first);
-			return w;
-		}
+		private char[] heights = new char[256];
+		private int len, lines;
+		private int start, end;
+		private Paths toExit;
 
-		public void add(Walker candidate) {
-			ListIterator<Walker> ite = inner.listIterator();
-			while (ite.hasNext()) {
-				Walker w = ite.next();
-				if (candidate.sameLastStep(w)) {
-					// only keep shortest walk to destination
-					if (candidate.walked() < w.walked()) ite.set(candidate);
-					return;
-				}
+		public void load(String encoded) {
+			if (lines == 0) len = encoded.length();
+			int offset = lines * len;
+			if (offset + len > heights.length) heights = Arrays.copyOf(heights, Math.max(offset + len, heights.length << 1));
+			for (int x = 0; x < len; ++x) {
+				char height = switch (encoded.charAt(x)) {
+					case 'S' -> { start = offset + x; yield 'a'; }
+					case 'E' -> { end = offset + x; yield 'z'; }
+					default -> encoded.charAt(x);
+				};
+				heights[offset + x] = height;
 			}
-			inner.add(candidate);
-		}
-
-		public void addAll(Collection<Walker> values) {
-			values.forEach(this::add);
+			++lines;
+			toExit = null;
 		}
 
-		public boolean isNotEmpty() {
-			return !inner.isEmpty();
+		public IntStream streamStarts() {
+			return IntStream.range(0, cells()).filter(c -> heights[c] == 'a');
 		}
 
 		@Override
-		public Iterator<Walker> iterator() {
-			return inner.iterator();
-		}
-
-		public int size() {
-			return inner.size();
-		}
-	}
-
-	private static class Grid {
-
-		private final List<char[]> lines = new ArrayList<>();
-		private int len;
-		private Coor start, end;
-
-		public char get(Coor c) {
-			return lines.get(c.y())[c.x()];
+		public int width() {
+			return len;
 		}
 
-		public void load(String encoded) {
-			int y = lines.size();
-			if (y == 0) len = encoded.length();
-			char[] line = new char[len];
-			for (int x = 0; x < len; ++x) {
-				char height = switch (encoded.charAt(x)) {
-					case 'S' -> { start = new Coor(x, y); yield 'a'; }
-					case 'E' -> { end = new Coor(x, y); yield 'z'; }
-					default -> encoded.charAt(x);
-				};
-				line[x] = height;
-			}
-			lines.add(line);
+		@Override
+		public int height() {
+			return lines;
 		}
 
-		public Stream<Coor> streamStarts() {
-			final List<Coor> starts = new ArrayList<>();
-			int y = 0;
-			for (char[] line : lines) {
-				for (int x = 0; x < len; ++x)
-					if (line[x] == 'a')
-						starts.add(new Coor(x, y));
-				++y;
-			}
-			return starts.stream();
+		@Override
+		public boolean canStep(int from, int to) {
+			return heights[to] - heights[from] <= 1;
 		}
 
 		@Override
 		public String toString() {
 			StringBuilder s = new StringBuilder();
-			for (char[] line : lines) {
-				for (char c : line) {
-					s.append(c).append(' ');
-				}
-				s.append('\n');
+			for (int c = 0; c < cells(); ++c) {
+				s.append(heights[c]).append(' ');
+				if (x(c) == len - 1) s.append('\n');
 			}
-			s.append("start=").append(start);
-			s.append(" end=").append(end);
+			s.append("start=(").append(x(start)).append(',').append(y(start)).append(')');
+			s.append(" end=(").append(x(end)).append(',').append(y(end)).append(')');
 			return s.toString();
 		}
 
-		public int maxX() {
-			return len - 1;
+		/**
+		 * Answered from the distance field to the exit, searched once (back from the exit) for all starts.
+		 */
+		public OptionalInt distanceToExit(int start) {
+			if (toExit == null) toExit = new GridSearch(reversed(), false).bfs(end, c -> false);
+			return toExit.reached(start) ? OptionalInt.of(toExit.distance(start)) : OptionalInt.empty();
 		}
-		public int maxY() {
-			return lines.size() - 1;
+
+		public OptionalInt findBestExit(int start) {
+			return findBestExit(start, () -> Integer.MAX_VALUE);
 		}
 
-		public OptionalInt findBestExit(Coor start) {
-			DEBUG.trace("== %s ==", start);
-			final Set<Coor> deadEnds = new HashSet<>();
-			final List<Walk> wins = new ArrayList<>();
-			Walkers walkers = Walkers.of(new Walker(this, start, deadEnds));
-			while (walkers.isNotEmpty()) {
-				Walkers nexts = new Walkers();
-				for (Walker w : walkers) {
-					if (w.arrived()) {
-						DEBUG.trace("DONE in %d", w.walked());
-						wins.add(w.walk);
-						continue;
-					}
-
-					nexts.addAll(w.multiStep());
-				}
-				DEBUG.trace("next round %d", nexts.size());
-				walkers = nexts;
-			}
-			OptionalInt min = wins.stream()
-					.mapToInt(Walk::length)
-					.min();
-			INFO.trace("%s: %d", start, min.orElse(-1));
+		/**
+		 * @param bound length past which the search is useless (empty result then)
+		 */
+		public OptionalInt findBestExit(int start, IntSupplier bound) {
+			OptionalInt min = new GridSearch(this, false)
+					.bfs(start, c -> c == end, bound)
+					.goalDistance();
+			DEBUG.trace("(%d,%d): %d", x(start), y(start), min.orElse(-1));
 			return min;
 		}
 	}
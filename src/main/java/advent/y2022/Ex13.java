@@ -2,16 +2,16 @@ package advent.y2022;
 
 import advent.Debug;
 import advent.RecursionMonitor;
+import advent.Solver;
 import advent.Trampoline;
 
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -19,15 +19,38 @@ import java.util.stream.Stream;
 
 import static java.nio.charset.Charset.defaultCharset;
 
-public class Ex13 {
+public class Ex13 implements Solver {
 	private static final Debug DEBUG = Debug.OFF;
 	private static final RecursionMonitor RECURSE = new RecursionMonitor();
 
-	public static void main(String[] args) throws IOException, URISyntaxException {
-		URI input = Ex13.class.getResource("ex13.input.txt").toURI();
+	/** how packets are compared */
+	public enum Mode {
+		/** regions compared through trampolines, out of the raw packets: kept to check {@link #FLAT} */
+		TRAMPOLINE,
+		/** tokens parsed once (see {@link Flat13}) */
+		FLAT,
+		/** byte keys built once, in parallel, then compared as plain unsigned bytes (see {@link Flat13#key(int)}) */
+		KEYS
+	}
+
+	private static final Comparator<byte[]> KEY_ORDER = Arrays::compareUnsigned;
+
+	private final Mode mode;
+	private final Comparator<Packet> order;
+	private final List<Packet> packets = new ArrayList<>();
+
+	public Ex13() {
+		this(Mode.KEYS);
+	}
 
-		List<Packet> packets = new ArrayList<>();
-		try (BufferedReader reader = Files.newBufferedReader(Path.of(input), defaultCharset())) {
+	public Ex13(Mode mode) {
+		this.mode = mode;
+		this.order = mode == Mode.FLAT ? Comparator.comparing(Packet::flat) : Comparator.naturalOrder();
+	}
+
+	@Override
+	public void parse(Path input) throws IOException {
+		try (BufferedReader reader = Files.newBufferedReader(input, defaultCharset())) {
 			String last = "";
 			while (last != null) {
 				packets.add(new Packet(reader.readLine()));
@@ -35,11 +58,53 @@ public class Ex13 {
 				last = reader.readLine(); // line-feed
 			}
 		}
-		Packet[] sorted = packets.stream().sorted().toArray(Packet[]::new);
-		int divideBegin = -Arrays.binarySearch(sorted, new Packet("[[2]]"));
+	}
+
+	/** sum of indices of the pairs in the right order */
+	@Override
+	public Integer part1() {
+		byte[][] keys = mode == Mode.KEYS ? keys() : null;
+		int sum = 0;
+		for (int i = 0; i < packets.size(); i += 2) {
+			int cmp = keys != null
+					? KEY_ORDER.compare(keys[i], keys[i + 1])
+					: order.compare(packets.get(i), packets.get(i + 1));
+			if (cmp < 0) sum += (i >> 1) + 1;
+		}
+		return sum;
+	}
+
+	/** decoder key */
+	@Override
+	public Integer part2() {
+		if (mode == Mode.KEYS) return part2Keys();
+		Packet[] sorted = packets.stream().sorted(order).toArray(Packet[]::new);
+		int divideBegin = -Arrays.binarySearch(sorted, new Packet("[[2]]"), order);
 		// add 1 to simulate other divider packet in the list
-		int divideEnd = 1 - Arrays.binarySearch(sorted, new Packet("[[6]]"));
-		System.out.printf("%d×%d=%d in %d max recursions", divideBegin, divideEnd, divideBegin * divideEnd, RECURSE.max());
+		int divideEnd = 1 - Arrays.binarySearch(sorted, new Packet("[[6]]"), order);
+		DEBUG.trace("%d×%d in %d max recursions", divideBegin, divideEnd, RECURSE.max());
+		return divideBegin * divideEnd;
+	}
+
+	private int part2Keys() {
+		byte[][] keys = keys(new Packet("[[2]]"), new Packet("[[6]]"));
+		byte[][] sorted = Arrays.copyOf(keys, packets.size());
+		Arrays.sort(sorted, KEY_ORDER);
+		int divideBegin = -Arrays.binarySearch(sorted, keys[packets.size()], KEY_ORDER);
+		// add 1 to simulate other divider packet in the list
+		int divideEnd = 1 - Arrays.binarySearch(sorted, keys[packets.size() + 1], KEY_ORDER);
+		DEBUG.trace("%d×%d", divideBegin, divideEnd);
+		return divideBegin * divideEnd;
+	}
+
+	/** @return the keys of all the packets, then of the {@code extra} ones, all at the same depth */
+	private byte[][] keys(Packet... extra) {
+		List<Packet> all = new ArrayList<>(packets);
+		all.addAll(List.of(extra));
+		final int depth = all.stream().mapToInt(p -> p.flat().depth()).max().orElse(0);
+		return all.parallelStream()
+				.map(p -> p.flat().key(depth))
+				.toArray(byte[][]::new);
 	}
 
 	private enum Order { EQUAL, GREATER_THAN, LESS_THAN }
@@ -77,7 +142,10 @@ public class Ex13 {
 		BouncyOrder compareWith(T other);
 	}
 
-	private record Packet(String raw) implements Comparable<Packet>, LazyOrdered<Packet> {
+	private record Packet(String raw, Flat13 flat) implements Comparable<Packet>, LazyOrdered<Packet> {
+		Packet(String raw) {
+			this(raw, new Flat13(raw));
+		}
 
 		@Override
 		public int compareTo(Packet other) {
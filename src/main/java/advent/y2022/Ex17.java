@@ -1,630 +1,436 @@
 package advent.y2022;
 
 import advent.BigInt;
-import advent.Coor;
 import advent.Debug;
-import advent.Walk;
+import advent.Solver;
 
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.List;
-import java.util.ListIterator;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
-import java.util.Set;
 import java.util.function.BiPredicate;
 import java.util.function.Consumer;
-import java.util.function.IntFunction;
-import java.util.function.UnaryOperator;
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
 import static java.nio.charset.Charset.defaultCharset;
 
-public class Ex17 {
-    private static final BigInt BLIP_PERIOD = new BigInt(10_000_000);
-    private static final BigInt BLIP_LN_PERIOD = BLIP_PERIOD.times(100);
-    private static final BigInt CUT_PERIOD = new BigInt(1_000);
+public class Ex17 implements Solver {
+    private static final long BLIP_PERIOD = 10_000_000;
+    private static final long BLIP_LN_PERIOD = BLIP_PERIOD * 100;
     private static final Debug DEBUG = Debug.OFF;
     private static final Debug INFO = Debug.ON;
 
-    public static void main(String[] args) throws IOException, URISyntaxException {
-        URI input = Ex17.class.getResource("ex17.input.txt").toURI();
+    private static final BigInt ROCKS_1 = new BigInt(2022);
+    private static final BigInt ROCKS_2 = new BigInt("1000000000000");
 
-        String directions;
-        try (BufferedReader reader = Files.newBufferedReader(Path.of(input), defaultCharset())) {
+    /** how to reach the requested number of rocks */
+    public enum Mode {
+        /** drop every single rock, kept to check {@link #CYCLES} */
+        BRUTE_FORCE,
+        /** drop rocks until the pile repeats itself, then extrapolate the remaining periods */
+        CYCLES
+    }
+
+    private final Mode mode;
+    private String directions;
+
+    public Ex17() {
+        this(Mode.CYCLES);
+    }
+
+    public Ex17(Mode mode) {
+        this.mode = mode;
+    }
+
+    @Override
+    public void parse(Path input) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(input, defaultCharset())) {
             directions = reader.readLine();
         }
+    }
+
+    @Override
+    public BigInt part1() {
+        return simulate(ROCKS_1);
+    }
 
+    @Override
+    public BigInt part2() {
+        return simulate(ROCKS_2);
+    }
+
+    private BigInt simulate(BigInt rocks) {
         Vent v = new Vent(directions);
         Area a = new Area();
-        Generator g = new Generator(a, new BigInt("1000000000000"));
-        Shape s = g.next();
+        Generator g = new Generator(a, rocks);
+        Cycles cycles = mode == Mode.CYCLES ? new Cycles() : null;
         while (g.hasNext()) {
-            v.blow(s, a);
-            if (s.canDown(a)) s.push(Coor::down);
-            else {
-                a.add(s);
-                if (g.at(CUT_PERIOD)) a.tryCut();
-                if (g.at(BLIP_PERIOD)) {
-                    if (g.at(BLIP_LN_PERIOD)) INFO.trace("!");
-                    else INFO.lifePulse();
-                }
-                s = g.next();
+            Rock r = g.next();
+            v.blow(r, a);
+            while (r.canDown(a)) {
+                r.down();
+                v.blow(r, a);
             }
-        }
-        System.out.printf("high=%s%n%s", a.highest, a.print(20));
-    }
-
-    private static class Area {
-        private static final String BOTTOM = "-------";
-        private static final String EMPTY  = ".......";
-
-        private BigInt highest = BigInt.ZERO;
-        private List<char[]> lines = new ArrayList<>();
-        private BigInt floor;
-        public Area() {
-            lines.add(BOTTOM.toCharArray());
-            floor = BigInt.ZERO;
-        }
-        private Area(Area org, int depth) {
-            int first = Math.max(org.lines.size() - depth, 0);
-            this.floor = org.floor.plus(new BigInt(first));
-            Iterator<char[]> ite = org.lines.listIterator(first);
-            while (ite.hasNext()) {
-                char[] orgLine = ite.next();
-                char[] copy = new char[orgLine.length];
-                System.arraycopy(orgLine, 0, copy, 0, orgLine.length);
-                lines.add(copy);
+            a.add(r);
+            if (cycles != null && cycles.skip(g, v, a)) cycles = null;
+            if (g.at(BLIP_PERIOD)) {
+                if (g.at(BLIP_LN_PERIOD)) INFO.trace("!");
+                else INFO.lifePulse();
             }
         }
+        DEBUG.trace("high=%s%n%s", a.highest(), a.print(20));
+        return a.highest();
+    }
 
-        public void add(Shape s) {
-            s.points().forEach(p -> occupy(p, '#'));
-        }
+    /**
+     * Fingerprints the simulation after each settled rock: once a state comes back,
+     * every period in between adds the same height, so whole periods can be skipped.
+     */
+    private static class Cycles {
+        private record State(int template, int vent, ByteBuffer surface) {}
+        private record Seen(long spawns, long highest) {}
 
-        public int relativeHighest() { return highest.minus(floor).intValue(); }
+        private final Map<State, Seen> seen = new HashMap<>();
 
-        public boolean isFree(Coor relative) {
-            if (relative.x() < 0 || relative.x() >= BOTTOM.length()) return false;
-            int y = relative.y();
-            return y >= lines.size() || lines.get(y)[relative.x()] == '.';
-        }
+        /** @return true once periods were skipped (no need to look further) */
+        public boolean skip(Generator g, Vent v, Area a) {
+            State state = new State(g.template(), v.position(), a.surface());
+            Seen previous = seen.putIfAbsent(state, new Seen(g.spawns, a.highest));
+            if (previous == null) return false;
 
-        public int maxX() {
-            return BOTTOM.length() - 1;
-        }
-        public int maxY() {
-            return lines.size();
+            long period = g.spawns - previous.spawns;
+            BigInt periods = g.remaining().dividedBy(BigInt.valueOf(period));
+            DEBUG.trace("period of %d rocks from %d, skipping %s of them", period, previous.spawns, periods);
+            g.skip(periods, period);
+            a.raise(periods, a.highest - previous.highest);
+            return true;
         }
+    }
 
-        public String plot(Shape s, int depth) {
-            Area copy = new Area(this, depth);
-            s.points().forEach(p -> copy.occupy(p, '@'));
-            return copy.print(depth);
+    /**
+     * Chamber as a bitboard: one byte per line, bit {@code x} set when column {@code x} is occupied.
+     * <p>
+     * Lines live in a ring buffer, along with the cells the rocks can still reach, flooded down from the air
+     * above the pile: lines under the lowest reachable one are dropped as soon as they appear, so the ring
+     * only holds the few dozen lines that still matter.
+     */
+    private static class Area {
+        private static final int WIDTH = 7;
+        private static final byte BOTTOM = (1 << WIDTH) - 1;
+        private static final int CAPACITY = 128;
+
+        private long highest;
+        private byte[] lines = new byte[CAPACITY];
+        private byte[] reachable = new byte[CAPACITY];
+        private int mask = CAPACITY - 1;
+        /** ring index of line 0 */
+        private int start;
+        private int size;
+        private long floor;
+        /** height skipped past what a long can count */
+        private BigInt overflow = BigInt.ZERO;
+        public Area() {
+            lines[size++] = BOTTOM;
         }
 
-        @Override
-        public String toString() {
-            return print(10);
+        public void add(Rock r) {
+            int top = r.y + r.height - 1;
+            if (top >= lines.length) grow(top + 1);
+            for (int i = 0; i < r.height; ++i) lines[index(r.y + i)] |= (byte) r.rows[i];
+            if (top >= size) size = top + 1;
+            if (top > relativeHighest()) highest = floor + top;
+            flood(r.y, top);
         }
 
-        public void tryCut() {
-            int minDepth = findMinDepth();
-            if (minDepth > 0) {
-                List<char[]> copy = new ArrayList<>(minDepth);
-                for (int y = minDepth; y < lines.size(); ++y) {
-                    copy.add(lines.get(y));
-                }
-                this.lines = copy; // drop previous, for GC
-                this.floor = floor.plus(minDepth);
-                DEBUG.trace("cut @%d (%d remains)", floor, copy.size());
-                //DEBUG.trace("%s", print(20));
-            }
+        /** @return line {@code y} (relative to {@link #floor}), empty above the pile */
+        public int line(int y) {
+            return y < size ? lines[index(y)] : 0;
         }
 
-        private int findMinDepth() {
-            int width = BOTTOM.length();
-            Scanner scanner = new Scanner(width);
-            for (int y = lines.size() - 1; y >= 0 && scanner.keepScanning(); --y) {
-                scanner.scan(lines.get(y), y);
-            }
-            // scanned all but still contains 0 → keep all
-            if (scanner.keepScanning()) return 0;
-            return scanner.continuousMin(this);
-        }
+        public int relativeHighest() { return (int) (highest - floor); }
 
-        private void occupy(Coor p, char marker) {
-            while (p.y() >= lines.size()) lines.add(EMPTY.toCharArray());
-            char[] line = lines.get(p.y());
-            line[p.x()] = marker;
-            if (p.y() > relativeHighest()) highest = floor.plus(p.y());
+        public BigInt highest() {
+            return overflow.plus(highest);
         }
 
-        private String print(int depth) {
-            StringBuilder printed = new StringBuilder();
-            final int downTo = Math.max(lines.size() - depth, 0);
-            for (int i = lines.size() -1; i >= downTo; --i) {
-                printed.append('|').append(lines.get(i)).append('|');
-                BigInt lineNum = floor.plus(i);
-                if (lineNum.divisibleBy(5)) printed.append(lineNum);
-                printed.append('\n');
+        /** moves the whole pile up, as if {@code periods} times {@code gain} lines had been stacked underneath */
+        public void raise(BigInt periods, long gain) {
+            try {
+                long by = Math.multiplyExact(periods.longValueExact(), gain);
+                long raisedFloor = Math.addExact(floor, by);
+                highest = Math.addExact(highest, by);
+                floor = raisedFloor;
+            } catch (ArithmeticException tooHigh) {
+                overflow = overflow.plus(periods.times(BigInt.valueOf(gain)));
             }
-            return printed.toString();
         }
-    }
 
-    private static class Scanner {
-        private final int[] depths;
-        private int min = Integer.MAX_VALUE;
-
-        Scanner(int width) {
-            depths = new int[width];
+        /**
+         * @return the lines rocks can still reach, unreachable cells being as good as occupied:
+         * whatever falls next only depends on it.
+         */
+        public ByteBuffer surface() {
+            byte[] copy = new byte[size];
+            for (int y = 0; y < size; ++y) copy[y] = (byte) (lines[index(y)] | ~reachable[index(y)] & BOTTOM);
+            return ByteBuffer.wrap(copy);
         }
 
-        public int continuousMin(Area area) {
-            int ref = depths[0];
-            int corrected = ref;
-            for (int x = 1; x < depths.length; ++x) {
-                int y = depths[x];
-                if (adjacent(ref, y) || adjacent(corrected, y)) corrected = y;
-                else corrected = findPath(x, y, area);
-                ref = y;
-            }
-            return min;
+        public String plot(Rock r, int depth) {
+            return print(depth, r);
         }
 
-        private static boolean adjacent(int ref, int y) {
-            return Math.abs(y - ref) <= 1;
+        @Override
+        public String toString() {
+            return print(10);
         }
 
-        public boolean keepScanning() {
-            return Arrays.stream(depths).anyMatch(d -> d == 0);
+        private int index(int y) {
+            return (start + y) & mask;
         }
 
-        public void scan(char[] line, int y) {
-            for (int x = 0; x < depths.length; ++x) {
-                if (line[x] != '.' && depths[x] == 0) {
-                    depths[x] = y;
-                    if (min > y) min = y;
+        /**
+         * Rocks only move down, left and right: cells reachable on a line are the free ones under
+         * reachable cells of the line above, spread sideways across free cells.
+         * Lines under {@code bottom} did not change, so the flood stops as soon as it finds the same cells there.
+         */
+        private void flood(int bottom, int top) {
+            int above = top + 1 < size ? reachable[index(top + 1)] : BOTTOM;
+            for (int y = top; y > 0; --y) {
+                int free = ~lines[index(y)] & BOTTOM;
+                int reach = above & free;
+                for (int spread = 0; spread != reach; ) {
+                    spread = reach;
+                    reach |= (reach << 1 | reach >> 1) & free;
                 }
-            }
-        }
-
-        private int findPath(int x, int y, Area area) {
-            final Coor start = new Coor(x - 1, depths[x - 1]);
-            final Coor goal = new Coor(x, y);
-            final Set<Coor> deadEnds = new HashSet<>();
-            Walkers walkers = Walkers.of(new Walker(start, goal, area, deadEnds));
-            while (walkers.isNotEmpty()) {
-                Walkers nexts = new Walkers();
-                for (Walker w : walkers) {
-                    if (w.arrived()) {
-                        DEBUG.trace("DONE in %d", w.walked());
-                        int absoluteMin = w.walk.stream().mapToInt(Coor::y).min().orElseThrow();
-                        if (absoluteMin < this.min) this.min = absoluteMin; 
-                        return w.walk.stream().filter(c -> c.x() == x).mapToInt(Coor::y).min().orElseThrow();
-                    }
-
-                    nexts.addAll(w.multiStep());
+                if (reach == 0) {
+                    cut(y);
+                    return;
                 }
-                DEBUG.trace("next round %d", nexts.size());
-                walkers = nexts;
+                if (y < bottom && reach == reachable[index(y)]) return;
+                reachable[index(y)] = (byte) reach;
+                above = reach;
             }
-            return y;
         }
-    }
 
-    private static class Walker {
-
-        private final Coor goal;
-        private Coor current;
-        private final Area area;
-        private final Walk walk;
-        private final Set<Coor> deadEnds;
-        Walker(Coor start, Coor goal, Area area, Set<Coor> deadEnds) {
-            this.area = area;
-            this.current = start;
-            this.deadEnds = deadEnds;
-            this.goal = goal;
-            walk = new Walk(start);
-        }
-        private Walker(Walker parent, Coor current) {
-            this.area = parent.area;
-            this.current = current;
-            this.deadEnds = parent.deadEnds;
-            this.goal = parent.goal;
-            walk = new Walk(parent.walk, current);
-        }
-
-        public boolean arrived() { return current.equals(goal); }
-
-        public void flagSteps(Walker w) {
-            w.walk.forEachStep(deadEnds::add);
-        }
-
-        public List<Walker> multiStep() {
-            List<Coor> eligibleArrivals = Stream.of(
-                    tryDownRight(), tryDown(), tryDownLeft(),
-                    tryLeft(),
-                    tryUpLeft(), tryUp(), tryUpRight(),
-                    tryRight()
-            ).flatMap(Optional::stream).toList();
- 
-            if (eligibleArrivals.isEmpty()) {
-                DEBUG.lifePulse();
-                walk.forEachStep(deadEnds::add);
-                return List.of();
+        /** drops the lines under {@code y}, which becomes line 0 */
+        private void cut(int y) {
+            for (int i = 0; i < y; ++i) {
+                lines[index(i)] = 0;
+                reachable[index(i)] = 0;
             }
-            if (eligibleArrivals.size() == 1) {
-                current = eligibleArrivals.get(0);
-                walk.save(current);
-                return List.of(this);
+            reachable[index(y)] = 0;
+            start = index(y);
+            size -= y;
+            floor += y;
+            DEBUG.trace("cut @%d (%d remains)", floor, size);
+        }
+
+        private void grow(int minCapacity) {
+            int capacity = Integer.highestOneBit(minCapacity) << 1;
+            byte[] grownLines = new byte[capacity];
+            byte[] grownReachable = new byte[capacity];
+            for (int y = 0; y < size; ++y) {
+                grownLines[y] = lines[index(y)];
+                grownReachable[y] = reachable[index(y)];
             }
-            return eligibleArrivals.stream()
-                    .map(sub -> new Walker(this, sub))
-                    .toList();
+            lines = grownLines;
+            reachable = grownReachable;
+            mask = capacity - 1;
+            start = 0;
         }
 
-        public boolean sameLastStep(Walker w) { return current.equals(w.current); }
-
-        public int walked() { return walk.length(); }
-
-        private Optional<Coor> eval(Coor candidate) {
-            if (walk.contains(candidate)) return Optional.empty();
-            if (area.isFree(candidate)) return Optional.empty();
-            if (deadEnds.contains(candidate)) return Optional.empty();
-            return Optional.of(candidate);
-        }
-
-        private Optional<Coor> tryDownRight() {
-            if (current.y() == 0 || current.x() == area.maxX()) return Optional.empty(); // border
-            return eval(current.down().right());
-        }
-        private Optional<Coor> tryDown() {
-            if (current.y() == 0) return Optional.empty(); // border
-            return eval(current.down());
-        }
-        private Optional<Coor> tryDownLeft() {
-            if (current.y() == 0 || current.x() == 0) return Optional.empty(); // border
-            return eval(current.down().left());
-        }
-        private Optional<Coor> tryLeft() {
-            if (current.x() == 0) return Optional.empty(); // border
-            return eval(current.left());
-        }
-        private Optional<Coor> tryUpLeft() {
-            if (current.y() == area.maxY() || current.x() == 0) return Optional.empty(); // border
-            return eval(current.up().left());
-        }
-        private Optional<Coor> tryUp() {
-            if (current.y() == area.maxY()) return Optional.empty(); // border
-            return eval(current.up());
-        }
-        private Optional<Coor> tryUpRight() {
-            if (current.y() == area.maxY() || current.x() == area.maxX()) return Optional.empty(); // border
-            return eval(current.up().right());
-        }
-        private Optional<Coor> tryRight() {
-            if (current.x() == area.maxX()) return Optional.empty(); // border
-            return eval(current.right());
+        private String print(int depth) {
+            return print(depth, null);
         }
-    }
 
-    private static class Walkers implements Iterable<Walker> {
-
-        private final List<Walker> inner = new ArrayList<>();
-        static Walkers of(Walker first) {
-            Walkers w = new Walkers();
-            w.inner.add(first);
-            return w;
-        }
-
-        public void add(Walker candidate) {
-            ListIterator<Walker> ite = inner.listIterator();
-            while (ite.hasNext()) {
-                Walker w = ite.next();
-                if (candidate.sameLastStep(w)) {
-                    // only keep shortest walk to destination
-                    if (candidate.walked() < w.walked()) {
-                        candidate.flagSteps(w);
-                        ite.set(candidate);
-                    } else {
-                        w.flagSteps(candidate);
-                    }
-                    return;
+        private String print(int depth, Rock falling) {
+            StringBuilder printed = new StringBuilder();
+            int top = falling == null ? size - 1 : Math.max(size - 1, falling.y + falling.height - 1);
+            final int downTo = Math.max(top + 1 - depth, 0);
+            for (int i = top; i >= downTo; --i) {
+                printed.append('|');
+                int line = line(i);
+                int rock = falling == null ? 0 : falling.row(i);
+                for (int x = 0; x < WIDTH; ++x) {
+                    int bit = 1 << x;
+                    if ((rock & bit) != 0) printed.append('@');
+                    else if ((line & bit) == 0) printed.append('.');
+                    else printed.append(i == 0 && floor == 0 ? '-' : '#');
                 }
+                printed.append('|');
+                long lineNum = floor + i;
+                if (lineNum % 5 == 0) printed.append(lineNum);
+                printed.append('\n');
             }
-            inner.add(candidate);
-        }
-
-        public void addAll(Collection<Walker> values) {
-            values.forEach(this::add);
-        }
-
-        public boolean isNotEmpty() {
-            return !inner.isEmpty();
-        }
-
-        @Override
-        public Iterator<Walker> iterator() {
-            return inner.iterator();
-        }
-
-        public int size() {
-            return inner.size();
+            return printed.toString();
         }
     }
 
-    private static class Generator implements Iterator<Shape> {
+    private static class Generator {
 
         private final Area a;
-        private final BigInt limit;
-        private BigInt spawns;
-        private final List<IntFunction<? extends Shape>> templates = List.of(
-                Horiz::new,
-                Cross::new,
-                RevL::new,
-                Vert::new,
-                Square::new
-        );
-        private final int nbTemplates = templates.size();
-
-        public Generator(Area a, BigInt limit) {
+        private final BigInt rocks;
+        /** how many rocks to actually drop (capped to what a long can count) */
+        private long limit;
+        private long spawns;
+        private final Template[] templates = Template.values();
+        private final int nbTemplates = templates.length;
+        private final Rock falling = new Rock();
+
+        public Generator(Area a, BigInt rocks) {
             this.a = a;
-            this.limit = limit;
-            spawns = BigInt.ZERO;
+            this.rocks = rocks;
+            try {
+                limit = rocks.longValueExact();
+            } catch (ArithmeticException tooMany) {
+                limit = Long.MAX_VALUE;
+            }
         }
 
-        public boolean at(BigInt len) {
-            return spawns.divisibleBy(len);
+        public boolean at(long len) {
+            return spawns % len == 0;
         }
 
-        @Override
         public boolean hasNext() {
-            return spawns.lowerTo(limit);
+            return spawns < limit;
         }
 
-        public Shape next() {
-            Shape next = templates.get(spawns.mod(nbTemplates)).apply(a.relativeHighest());
-            spawns = spawns.inc();
-            return next;
-        }
-    }
-
-    private interface Shape {
-        boolean canDown(Area in);
-        boolean canLeft(Area in);
-        boolean canRight(Area in);
-        Stream<Coor> points();
-        void push(UnaryOperator<Coor> direction);
-    }
-
-    /**
-     * <pre>
-     *    tm
-     *    |
-     * ml—+—mr
-     *    |
-     *    bm</pre>
-     */
-    private static class Cross implements Shape {
-        private Coor tm, ml, mr, bm;
-        Cross(int highest) {
-            tm = new Coor(3, highest + 6);
-            ml = new Coor(2, highest + 5);
-            mr = new Coor(4, highest + 5);
-            bm = new Coor(3, highest + 4);
+        public BigInt remaining() {
+            return rocks.minus(BigInt.valueOf(spawns));
         }
 
-        @Override
-        public boolean canDown(Area in) {
-            return in.isFree(bm.down()) && in.isFree(ml.down()) && in.isFree(mr.down());
-        }
-        @Override
-        public boolean canLeft(Area in) {
-            return in.isFree(ml.left()) && in.isFree(tm.left()) && in.isFree(bm.left());
+        /**
+         * Skips whole periods: only the rocks left past them remain to drop.
+         * Since a period starts and ends on the same template, {@link #template()} is unchanged.
+         */
+        public void skip(BigInt periods, long period) {
+            limit = spawns + remaining().minus(periods.times(BigInt.valueOf(period))).longValueExact();
         }
-        @Override
-        public boolean canRight(Area in) {
-            return in.isFree(mr.right()) && in.isFree(tm.right()) && in.isFree(bm.right());
-        }
-        @Override
-        public Stream<Coor> points() { return Stream.of(tm, mr, ml, bm, mid()); }
 
-        private Coor mid() {
-            return new Coor(tm.x(), ml.y());
+        /** @return index of the next template to spawn */
+        public int template() {
+            return (int) (spawns % nbTemplates);
         }
 
-        @Override
-        public void push(UnaryOperator<Coor> direction) {
-            tm = direction.apply(tm);
-            ml = direction.apply(ml);
-            mr = direction.apply(mr);
-            bm = direction.apply(bm);
+        /** @return the falling rock, recycled from one spawn to the next */
+        public Rock next() {
+            falling.spawn(templates[template()], a.relativeHighest());
+            ++spawns;
+            return falling;
         }
     }
 
     /**
-     * <pre>
-     * l—(l+3)</pre>
+     * Rocks as line bitmasks (bottom line first), as they appear: two units away from the left wall.
      */
-    private static class Horiz implements Shape {
-        private Coor l;
-        Horiz(int highest) {
-            int y = highest + 4;
-            l = new Coor(2, y);
-        }
-
-        @Override
-        public boolean canDown(Area in) {
-            return points().map(Coor::down).allMatch(in::isFree);
-        }
-        @Override
-        public boolean canLeft(Area in) {
-            return in.isFree(l.left());
-        }
-        @Override
-        public boolean canRight(Area in) {
-            return in.isFree(new Coor(l.x() + 4, l.y()));
-        }
-        @Override
-        public Stream<Coor> points() {
-            return IntStream.rangeClosed(l.x(), l.x() + 3).mapToObj(x -> new Coor(x, l.y()));
-        }
-
-        @Override
-        public void push(UnaryOperator<Coor> direction) {
-            l = direction.apply(l);
+    private enum Template {
+        /**
+         * <pre>
+         * ####</pre>
+         */
+        HORIZ(0b0111100),
+        /**
+         * <pre>
+         * .#.
+         * ###
+         * .#.</pre>
+         */
+        CROSS(0b0001000, 0b0011100, 0b0001000),
+        /**
+         * <pre>
+         * ..#
+         * ..#
+         * ###</pre>
+         */
+        REV_L(0b0011100, 0b0010000, 0b0010000),
+        /**
+         * <pre>
+         * #
+         * #
+         * #
+         * #</pre>
+         */
+        VERT(0b0000100, 0b0000100, 0b0000100, 0b0000100),
+        /**
+         * <pre>
+         * ##
+         * ##</pre>
+         */
+        SQUARE(0b0001100, 0b0001100);
+
+        private final int[] rows;
+        Template(int... rows) {
+            this.rows = rows;
         }
     }
 
-    /**
-     * <pre>
-     *    tr
-     *    |
-     * bl—br</pre>
-     */
-    private static class RevL implements Shape {
-        private Coor tr, bl, br;
-        RevL(int highest) {
-            tr = new Coor(4, highest + 6);
-            bl = new Coor(2, highest + 4);
-            br = new Coor(4, highest + 4);
-        }
+    private static class Rock {
+        private static final int LEFT_WALL = 1;
+        private static final int RIGHT_WALL = 1 << Area.WIDTH - 1;
 
-        @Override
-        public boolean canDown(Area in) {
-            return bottomPoints().map(Coor::down).allMatch(in::isFree);
-        }
+        private final int[] rows = new int[4];
+        private int height;
+        private int y;
 
-        @Override
-        public boolean canLeft(Area in) {
-            return in.isFree(bl.left()) && vertPoints().map(Coor::left).allMatch(in::isFree);
+        void spawn(Template t, int highest) {
+            height = t.rows.length;
+            System.arraycopy(t.rows, 0, rows, 0, height);
+            y = highest + 4;
         }
 
-        @Override
-        public boolean canRight(Area in) {
-            return in.isFree(br.right()) && vertPoints().map(Coor::right).allMatch(in::isFree);
+        /** @return line {@code y} of the rock, 0 outside of it */
+        int row(int y) {
+            int i = y - this.y;
+            return i < 0 || i >= height ? 0 : rows[i];
         }
 
-        @Override
-        public Stream<Coor> points() { return Stream.concat(vertPoints(), bottomPoints()); }
-
-        @Override
-        public void push(UnaryOperator<Coor> direction) {
-            tr = direction.apply(tr);
-            bl = direction.apply(bl);
-            br = direction.apply(br);
-        }
-
-        private Stream<Coor> bottomPoints() {
-            return IntStream.rangeClosed(bl.x(), br.x()).mapToObj(x -> new Coor(x, bl.y()));
-        }
-
-        private Stream<Coor> vertPoints() {
-            return IntStream.rangeClosed(br.y() + 1, tr.y()).mapToObj(y -> new Coor(tr.x(), y));
-        }
-    }
-
-    /**
-     * <pre>
-     * tl—tr
-     * |  |
-     * bl—br</pre>
-     */
-    private static class Square implements Shape {
-        private Coor tl, tr, bl, br;
-        Square(int highest) {
-            tl = new Coor(2, highest + 5);
-            tr = new Coor(3, highest + 5);
-            bl = new Coor(2, highest + 4);
-            br = new Coor(3, highest + 4);
-        }
-
-        @Override
-        public boolean canDown(Area in) {
-            return in.isFree(bl.down()) && in.isFree(br.down());
-        }
-        @Override
-        public boolean canLeft(Area in) {
-            return in.isFree(tl.left()) && in.isFree(bl.left());
-        }
-        @Override
-        public boolean canRight(Area in) {
-            return in.isFree(tr.right()) && in.isFree(br.right());
+        boolean canDown(Area in) {
+            for (int i = 0; i < height; ++i) {
+                if ((rows[i] & in.line(y + i - 1)) != 0) return false;
+            }
+            return true;
         }
-        @Override
-        public Stream<Coor> points() { return Stream.of(tl, tr, bl, br); }
-
-        @Override
-        public void push(UnaryOperator<Coor> direction) {
-            tl = direction.apply(tl);
-            tr = direction.apply(tr);
-            bl = direction.apply(bl);
-            br = direction.apply(br);
+        boolean canLeft(Area in) {
+            for (int i = 0; i < height; ++i) {
+                if ((rows[i] & LEFT_WALL) != 0 || (rows[i] >> 1 & in.line(y + i)) != 0) return false;
+            }
+            return true;
         }
-    }
-
-    /**
-     * <pre>
-     * (b+3)
-     *   |
-     *   b</pre>
-     */
-    private static class Vert implements Shape {
-        private Coor b;
-        Vert(int highest) {
-            b = new Coor(2, highest + 4);
+        boolean canRight(Area in) {
+            for (int i = 0; i < height; ++i) {
+                if ((rows[i] & RIGHT_WALL) != 0 || (rows[i] << 1 & in.line(y + i)) != 0) return false;
+            }
+            return true;
         }
 
-        @Override
-        public boolean canDown(Area in) {
-            return in.isFree(b.down());
+        void down() {
+            --y;
         }
-        @Override
-        public boolean canLeft(Area in) {
-            return points().map(Coor::left).allMatch(in::isFree);
+        void left() {
+            for (int i = 0; i < height; ++i) rows[i] >>= 1;
         }
-        @Override
-        public boolean canRight(Area in) {
-            return points().map(Coor::right).allMatch(in::isFree);
-        }
-        @Override
-        public Stream<Coor> points() {
-            return IntStream.rangeClosed(b.y(), b.y() + 3).mapToObj(y -> new Coor(b.x(), y));
-        }
-
-        @Override
-        public void push(UnaryOperator<Coor> direction) {
-            b = direction.apply(b);
+        void right() {
+            for (int i = 0; i < height; ++i) rows[i] <<= 1;
         }
     }
 
-    private enum Direction implements BiPredicate<Shape, Area>, Consumer<Shape> {
-        LEFT(Shape::canLeft, Coor::left),
-        RIGHT(Shape::canRight, Coor::right);
+    private enum Direction implements BiPredicate<Rock, Area>, Consumer<Rock> {
+        LEFT(Rock::canLeft, Rock::left),
+        RIGHT(Rock::canRight, Rock::right);
 
-        private final BiPredicate<Shape, Area> condition;
-        private final UnaryOperator<Coor> action;
-        Direction(BiPredicate<Shape, Area> condition, UnaryOperator<Coor> action) {
+        private final BiPredicate<Rock, Area> condition;
+        private final Consumer<Rock> action;
+        Direction(BiPredicate<Rock, Area> condition, Consumer<Rock> action) {
             this.condition = condition;
             this.action = action;
         }
 
         @Override
-        public void accept(Shape shape) { shape.push(action); }
+        public void accept(Rock rock) { action.accept(rock); }
         @Override
-        public boolean test(Shape shape, Area area) { return condition.test(shape, area); }
+        public boolean test(Rock rock, Area area) { return condition.test(rock, area); }
     }
 
     private static class Vent {
@@ -633,19 +439,23 @@ public class Ex17 {
                 '<', Direction.LEFT
         );
         private int idx = 0;
-        private final String pushes;
+        private final Direction[] pushes;
         public Vent(String pushes) {
-            this.pushes = pushes;
+            this.pushes = pushes.chars().mapToObj(c -> directions.get((char) c)).toArray(Direction[]::new);
+        }
+
+        public int position() {
+            return idx;
         }
 
-        public void blow(Shape s, Area a) {
+        public void blow(Rock r, Area a) {
             Direction d = nextPush();
-            if (d.test(s, a)) d.accept(s);
+            if (d.test(r, a)) d.accept(r);
         }
 
         private Direction nextPush() {
-            Direction d = directions.get(pushes.charAt(idx));
-            idx = (idx + 1) % pushes.length();
+            Direction d = pushes[idx];
+            idx = (idx + 1) % pushes.length;
             return d;
         }
     }
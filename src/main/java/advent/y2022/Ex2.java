@@ -1,20 +1,28 @@
 package advent.y2022;
 
-import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import advent.LineSolver;
+
 import java.util.Map;
-import java.util.function.Consumer;
 
-public class Ex2 implements Consumer<String> {
+public class Ex2 implements LineSolver {
 
-    private int score = 0;
+    private int score1 = 0;
+    private int score2 = 0;
 
     @Override
     public void accept(String draw) {
-        score += compute2(draw);
+        score1 += compute1(draw);
+        score2 += compute2(draw);
+    }
+
+    @Override
+    public Integer part1() {
+        return score1;
+    }
+
+    @Override
+    public Integer part2() {
+        return score2;
     }
 
     private static final Map<Character, Shape> ME_CODES = Map.of(
@@ -40,13 +48,6 @@ public class Ex2 implements Consumer<String> {
         return me.score + outcome.score;
     }
 
-    public static void main(String[] args) throws IOException, URISyntaxException {
-        Ex2 consumer = new Ex2();
-        URI input = consumer.getClass().getResource("ex2.input.txt").toURI();
-        Files.readAllLines(Path.of(input)).forEach(consumer);
-        System.out.println(consumer.score);
-    }
-
     private enum Outcome {
         WIN(6),
         DRAW(3),
@@ -2,127 +2,212 @@ package advent.y2022;
 
 import advent.BigInt;
 import advent.Debug;
+import advent.MutableBigInt;
+import advent.Solver;
 
 import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.SplittableRandom;
 
-public class Ex20 {
-    private static final Debug DEBUG = Debug.ON;
+public class Ex20 implements Solver {
+    private static final Debug DEBUG = Debug.OFF;
 
     private static final BigInt KEY = new BigInt(811589153L);
+    private static final int DECRYPTION_ROUNDS = 10;
 
-    public static void main(String[] args) throws IOException, URISyntaxException {
-        URI input = Ex20.class.getResource("ex20.example.txt").toURI();
-        BigInt[] values = Files.readAllLines(Path.of(input)).stream()
+    private final int rounds;
+    private BigInt[] values;
+
+    public Ex20() {
+        this(DECRYPTION_ROUNDS);
+    }
+
+    /** @param rounds how many times the whole file is mixed */
+    public Ex20(int rounds) {
+        if (rounds < 0) throw new IllegalArgumentException("negative rounds: " + rounds);
+        this.rounds = rounds;
+    }
+
+    @Override
+    public void parse(Path input) throws IOException {
+        values = Files.readAllLines(input).stream()
                 .map(val -> new BigInt(val).times(KEY))
                 .toArray(BigInt[]::new);
+    }
+
+    /** grove coordinates, decrypted */
+    @Override
+    public BigInt part2() {
         Mixed wk = new Mixed(values);
         DEBUG.trace("init: %s", wk);
-        for (int i = 0; i < 1; ++i) {
+        for (int i = 0; i < rounds; ++i) {
             for (int rank = 0; rank < values.length; ++rank) {
                 wk.move(rank);
             }
             DEBUG.trace("after %d: %s", i, wk);
         }
-        BigInt a = wk.getK(1);
-        BigInt b = wk.getK(2);
-        BigInt c = wk.getK(3);
-        System.out.printf("%s+%s+%s=%s", a, b, c, a.plus(b).plus(c));
+        MutableBigInt sum = new MutableBigInt();
+        for (int k = 1; k <= 3; ++k) {
+            BigInt coordinate = wk.getK(k);
+            DEBUG.trace("#%d000: %s", k, coordinate);
+            sum.add(coordinate);
+        }
+        return sum.toBigInt();
     }
 
+    /**
+     * Values as an implicit treap (keyed by position, heap-ordered by random priorities), over int-indexed nodes:
+     * node {@code i} holds the {@code i}-th value of the original order, so mixing walks nodes 0, 1, 2...
+     * Finding a node's position and moving it are both O(log n).
+     * <p>
+     * A moving value is out of the circle while it moves: it goes round the {@code n - 1} others,
+     * so its shift is reduced modulo {@code n - 1}, once for all rounds.
+     */
     private static class Mixed {
+        private static final int NONE = -1;
 
-        private final boolean[] touched;
         private final BigInt[] values;
-        private int zeroIdx = -1;
+        private final int[] shifts;
+        private final int[] left, right, parent, size, priority;
+        private int root = NONE;
+        private int zero = NONE;
 
         public Mixed(BigInt[] values) {
-            this.touched = new boolean[values.length];
-            this.values = new BigInt[values.length];
-            System.arraycopy(values, 0, this.values, 0, values.length);
+            final int n = values.length;
+            this.values = values;
+            left = new int[n];
+            right = new int[n];
+            parent = new int[n];
+            size = new int[n];
+            priority = new int[n];
+            shifts = new int[n];
+            SplittableRandom random = new SplittableRandom(n);
+            for (int node = 0; node < n; ++node) {
+                left[node] = right[node] = parent[node] = NONE;
+                size[node] = 1;
+                priority[node] = random.nextInt();
+                if (values[node].equals(BigInt.ZERO)) zero = node;
+                shifts[node] = n > 1 ? values[node].mod(n - 1) : 0; // BigInt.mod is never negative
+                root = merge(root, node);
+            }
         }
 
+        /** moves the {@code rank}-th value (in original order) */
         public void move(int rank) {
-            int from = firstUntouched();
-            BigInt val = values[from];
-
-            int to = wrap(from, val);
+            if (values.length < 2) return; // nowhere to go
+            int from = position(rank);
+            int to = (int) (((long) from + shifts[rank]) % (values.length - 1));
 
-            if (to == from) {
-                touched[to] = true; // record touch
-                return; // but otherwise noop
-            }
+            if (to == from) return; // noop
 
-            if (to == 0 && val.lowerTo(BigInt.ZERO)) putLast(from);
-            else if (to < from) backward(from, to);
-            else forward(from, to);
+            root = remove(from);
+            root = insert(rank, to);
         }
 
         public BigInt getK(int mult) {
-            if (zeroIdx < 0) {
-                zeroIdx = 0;
-                while (zeroIdx < values.length && !values[zeroIdx].equals(BigInt.ZERO)) {
-                    ++zeroIdx;
-                }
-            }
-            int offset = zeroIdx + mult * 1000;
-            return values[offset % values.length];
+            if (zero == NONE) throw new IllegalStateException("no zero");
+            int offset = position(zero) + mult * 1000;
+            return values[at(offset % values.length)];
         }
 
         @Override
         public String toString() {
             StringBuilder s = new StringBuilder().append('[');
             for (int i = 0; i < values.length; ++i) {
-                if (touched[i]) s.append('!');
-                s.append(values[i]).append(',');
+                s.append(values[at(i)]).append(',');
             }
             return s.deleteCharAt(s.length() - 1).append(']').toString();
         }
 
-        /** <pre>[..a_bcXd...] → [...aXbcd...]</pre> */
-        private void backward(int from, int to) {
-            BigInt val = values[from];
-            int shifted = from - to;
-            System.arraycopy(values, to, values, to + 1, shifted);
-            System.arraycopy(touched, to, touched, to + 1, shifted);
-            values[to] = val;
-            touched[to] = true;
+        /** @return current position of {@code node} */
+        private int position(int node) {
+            int pos = size(left[node]);
+            for (int child = node, p = parent[node]; p != NONE; child = p, p = parent[p]) {
+                if (right[p] == child) pos += size(left[p]) + 1;
+            }
+            return pos;
         }
 
-        private int firstUntouched() {
-            int i = 0;
-            while (i < touched.length && touched[i]) { ++i; }
-            if (i == touched.length) throw new IllegalStateException("already finished");
-            return i;
+        /** @return node currently at {@code pos} */
+        private int at(int pos) {
+            int node = root;
+            while (true) {
+                int before = size(left[node]);
+                if (pos < before) node = left[node];
+                else if (pos == before) return node;
+                else {
+                    pos -= before + 1;
+                    node = right[node];
+                }
+            }
+        }
+
+        /** @return root once the node at {@code pos} is taken out */
+        private int remove(int pos) {
+            int[] split = split(root, pos);
+            int[] rest = split(split[1], 1);
+            return merge(split[0], rest[1]);
         }
 
-        /** <pre>[..aXbc_d...] → [...abcXd...]</pre> */
-        private void forward(int from, int to) {
-            BigInt val = values[from];
-            int shifted = to - from;
-            System.arraycopy(values, from + 1, values, from, shifted);
-            System.arraycopy(touched, from + 1, touched, from, shifted);
-            values[to] = val;
-            touched[to] = true;
+        /** @return root once {@code node} is put back at {@code pos} */
+        private int insert(int node, int pos) {
+            int[] split = split(root, pos);
+            return merge(merge(split[0], node), split[1]);
         }
 
-        /** <pre>[..aXbcd] → [...abcdX]</pre> */
-        private void putLast(int from) {
-            forward(from, values.length - 1);
+        /** @return roots of the first {@code count} nodes of {@code tree}, and of the others */
+        private int[] split(int tree, int count) {
+            if (tree == NONE) return new int[] { NONE, NONE };
+            int[] halves;
+            if (size(left[tree]) < count) {
+                halves = split(right[tree], count - size(left[tree]) - 1);
+                attachRight(tree, halves[0]);
+                halves[0] = tree;
+            } else {
+                halves = split(left[tree], count);
+                attachLeft(tree, halves[1]);
+                halves[1] = tree;
+            }
+            detach(halves[0]);
+            detach(halves[1]);
+            return halves;
         }
 
-        private int wrap(int from, BigInt val) {
-            final int len = values.length;
-            BigInt i = val.plus(from);
-            BigInt d = i.dividedBy(len);
-            if (i.lowerTo(BigInt.ZERO)) {
-                BigInt backToPositive = BigInt.ONE.minus(d).times(len);
-                return i.plus(backToPositive).minus(BigInt.ONE).intValue();
+        /** @return root of {@code a} followed by {@code b} */
+        private int merge(int a, int b) {
+            if (a == NONE) return b;
+            if (b == NONE) return a;
+            if (priority[a] > priority[b]) {
+                attachRight(a, merge(right[a], b));
+                return a;
             }
-            return i.minus(d.times(len)).plus(d).mod(len);
+            attachLeft(b, merge(a, left[b]));
+            return b;
+        }
+
+        private void attachLeft(int node, int child) {
+            left[node] = child;
+            if (child != NONE) parent[child] = node;
+            update(node);
+        }
+
+        private void attachRight(int node, int child) {
+            right[node] = child;
+            if (child != NONE) parent[child] = node;
+            update(node);
+        }
+
+        private void detach(int node) {
+            if (node != NONE) parent[node] = NONE;
+        }
+
+        private void update(int node) {
+            size[node] = size(left[node]) + size(right[node]) + 1;
+        }
+
+        private int size(int node) {
+            return node == NONE ? 0 : size[node];
         }
     }
 }
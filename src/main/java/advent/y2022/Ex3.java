@@ -1,29 +1,35 @@
 package advent.y2022;
 
 import advent.Debug;
+import advent.LineSolver;
 
-import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.Arrays;
-import java.util.function.Consumer;
 
-
-public class Ex3  implements Consumer<String> {
+public class Ex3  implements LineSolver {
 
     private final static Debug DEBUG = Debug.ON;
 
+    private int misplaced = 0;
     private int priority = 0;
     private int[] potentialBadges;
     private int rank = 0;
 
     @Override
     public void accept(String content) {
+        misplaced += compute1(content);
         compute2(content);
     }
 
+    @Override
+    public Integer part1() {
+        return misplaced;
+    }
+
+    @Override
+    public Integer part2() {
+        return priority;
+    }
+
     private static int compute1(String content) {
         int mid = content.length() >> 1;
         for (int i = 0; i < mid; ++i) {
@@ -65,11 +71,4 @@ public class Ex3  implements Consumer<String> {
                 : item - 'a' + 1;
     }
 
-    public static void main(String[] args) throws IOException, URISyntaxException {
-        Ex3 consumer = new Ex3();
-        URI input = consumer.getClass().getResource("ex3.input.txt").toURI();
-        Files.readAllLines(Path.of(input)).forEach(consumer);
-        System.out.println("R=" + consumer.priority);
-    }
-
 }
@@ -1,18 +1,15 @@
 package advent.y2022;
 
-import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.util.function.Consumer;
+import advent.LineSolver;
+
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-public class Ex4 implements Consumer<String> {
+public class Ex4 implements LineSolver {
 
     private final static Pattern REGEX_SECTIONS = Pattern.compile("^(\\d+)-(\\d+),(\\d+)-(\\d+)$");
 
+    private int contained = 0;
     private int result = 0;
 
     @Override
@@ -21,19 +18,22 @@ public class Ex4 implements Consumer<String> {
         if (!m.matches()) throw new IllegalArgumentException("bad pair " + pair);
         Sections a = new Sections(m.group(1), m.group(2));
         Sections b = new Sections(m.group(3), m.group(4));
-        //result += duplicates(a, b);
+        contained += duplicates(a, b);
         if (a.overlaps(b)) ++result;
     }
 
-    private static int duplicates(Sections a, Sections b) {
-        return a.contains(b) || b.contains(a) ? 1 : 0;
+    @Override
+    public Integer part1() {
+        return contained;
     }
 
-    public static void main(String[] args) throws IOException, URISyntaxException {
-        Ex4 consumer = new Ex4();
-        URI input = consumer.getClass().getResource("ex4.input.txt").toURI();
-        Files.readAllLines(Path.of(input)).forEach(consumer);
-        System.out.println("R=" + consumer.result);
+    @Override
+    public Integer part2() {
+        return result;
+    }
+
+    private static int duplicates(Sections a, Sections b) {
+        return a.contains(b) || b.contains(a) ? 1 : 0;
     }
 
     private record Sections(int begin, int end) {
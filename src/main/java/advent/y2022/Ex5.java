@@ -1,9 +1,9 @@
 package advent.y2022;
 
+import advent.Solver;
+
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -16,14 +16,13 @@ import java.util.stream.Stream;
 import static java.nio.charset.Charset.defaultCharset;
 import static java.util.stream.Collectors.joining;
 
-public class Ex5 {
-
-    public static void main(String[] args) throws IOException, URISyntaxException {
-        URI input = Ex5.class.getResource("ex5.input.txt").toURI();
-        List<CratesLine> cratesLines = new ArrayList<>();
-        List<Move> moves = new ArrayList<>();
+public class Ex5 implements Solver {
+    private final List<CratesLine> cratesLines = new ArrayList<>();
+    private final List<Move> moves = new ArrayList<>();
 
-        try (BufferedReader reader = Files.newBufferedReader(Path.of(input), defaultCharset())) {
+    @Override
+    public void parse(Path input) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(input, defaultCharset())) {
             String line = reader.readLine();
             while (CratesLine.FORMAT.matcher(line).matches()) {
                 cratesLines.add(new CratesLine(line));
@@ -37,15 +36,31 @@ public class Ex5 {
                 line = reader.readLine();
             }
         }
+    }
+
+    @Override
+    public String part1() {
+        return rearrange(Stack::move);
+    }
+
+    @Override
+    public String part2() {
+        return rearrange(Stack::move9001);
+    }
+
+    @FunctionalInterface
+    private interface Crane {
+        void move(Stack from, int qty, Stack dest);
+    }
 
+    private String rearrange(Crane crane) {
         final Stack[] stacks = toStacks(cratesLines.toArray(CratesLine[]::new));
         for (Move m : moves) {
-            stacks[m.from().index()].move9001(m.qty(), stacks[m.to().index()]);
+            crane.move(stacks[m.from().index()], m.qty(), stacks[m.to().index()]);
         }
-        String tops = Arrays.stream(stacks)
+        return Arrays.stream(stacks)
                 .flatMap(Stack::streamTop)
                 .collect(joining());
-        System.out.println(tops);
     }
 
     private static Stack[] toStacks(CratesLine[] lines) {
@@ -1,12 +1,23 @@
 package advent.y2022;
 
-import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import advent.LineSolver;
 
-public class Ex6 {
+import java.util.ArrayList;
+import java.util.List;
+
+public class Ex6 implements LineSolver {
+    private final List<Integer> markers = new ArrayList<>();
+
+    @Override
+    public void accept(String buffer) {
+        markers.add(start(buffer));
+    }
+
+    /** start-of-message marker, for each buffer */
+    @Override
+    public List<Integer> part2() {
+        return markers;
+    }
 
     private static int start(String buffer) {
         final Memory mem = new Memory();
@@ -21,11 +32,6 @@ public class Ex6 {
         return -1;
     }
 
-    public static void main(String[] args) throws IOException, URISyntaxException {
-        URI input = Ex6.class.getResource("ex6.input.txt").toURI();
-        Files.readAllLines(Path.of(input)).forEach(line -> System.out.println(start(line)));
-    }
-
     private static class Memory {
         public static final int LEN = 13;
         private final char[] values = new char[LEN];
@@ -1,23 +1,19 @@
 package advent.y2022;
 
 import advent.Debug;
+import advent.LineSolver;
 
-import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
-public class Ex7 implements Consumer<String> {
+public class Ex7 implements LineSolver {
     private static final Debug DEBUG = Debug.ON;
     public static final long DISK_SIZE = 70_000_000L;
-    private Dir current = Dir.ROOT;
+    private final Dir root = new Dir("/", null);
+    private Dir current = root;
 
     @Override
     public void accept(String input) {
@@ -26,7 +22,7 @@ public class Ex7 implements Consumer<String> {
             return;
         }
         if (input.equals("$ cd /")) {
-            current = Dir.ROOT;
+            current = root;
             DEBUG.trace("←%n");
             return;
         }
@@ -40,13 +36,16 @@ public class Ex7 implements Consumer<String> {
         }
     }
 
-    public static void main(String[] args) throws IOException, URISyntaxException {
-        Ex7 ex = new Ex7();
-        URI input = ex.getClass().getResource("ex7.input.txt").toURI();
-        Files.readAllLines(Path.of(input)).forEach(ex);
-        long left = DISK_SIZE - Dir.ROOT.totalSize;
+    @Override
+    public Long part1() {
+        return lt100k(root);
+    }
+
+    @Override
+    public Long part2() {
+        long left = DISK_SIZE - root.totalSize;
         long minDelete = 30_000_000L - left;
-        System.out.println(Dir.ROOT.stream(minDelete).mapToLong(Dir::size).min());
+        return root.stream(minDelete).mapToLong(Dir::size).min().orElseThrow();
     }
 
     private static long lt100k(Dir d) {
@@ -76,8 +75,6 @@ public class Ex7 implements Consumer<String> {
     }
 
     private static class Dir {
-        static final Dir ROOT = new Dir("/", null);
-
         private final String name; 
         private long totalSize;
 
@@ -1,24 +1,29 @@
 package advent.y2022;
 
 import advent.Debug;
+import advent.LineSolver;
 
-import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.*;
 
-public class Ex8 {
+public class Ex8 implements LineSolver {
     private static final Debug DEBUG = Debug.ON;
 
-    public static void main(String[] args) throws IOException, URISyntaxException {
-        URI input = Ex8.class.getResource("ex8.input.txt").toURI();
-        Grid g = new Grid();
-        Files.readAllLines(Path.of(input)).forEach(g::load);
-        System.out.println(g.scenic());
+    private final Grid grid = new Grid();
+
+    @Override
+    public void accept(String encoded) {
+        grid.load(encoded);
+    }
+
+    @Override
+    public Integer part1() {
+        return grid.countVisible();
     }
 
+    @Override
+    public Long part2() {
+        return grid.scenic();
+    }
 
     private static class Grid {
 
@@ -1,17 +1,14 @@
 package advent.y2022;
 
-import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import advent.LineSolver;
+
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-public class Ex9 {
+public class Ex9 implements LineSolver {
 
     private static final Pattern MOVE_FORMAT = Pattern.compile("^([UDRL]) (\\d+)$");
     public static final int TRAILING_LEN = 9;
@@ -20,19 +17,19 @@ public class Ex9 {
     private Coor head = new Coor(0, 0);
     private final Coor[] knots = new Coor[TRAILING_LEN];
     private final Set<Coor> tailVisited = new HashSet<>();
-    private Ex9() {
+    public Ex9() {
         Arrays.fill(knots, head);
         tailVisited.add(knots[TAIL_IDX]); // starting position is considered visited
     }
 
-    public static void main(String[] args) throws IOException, URISyntaxException {
-        URI input = Ex9.class.getResource("ex9.input.txt").toURI();
-        Ex9 ex = new Ex9();
-        Files.readAllLines(Path.of(input)).forEach(ex::moveHead);
-        System.out.println(ex.tailVisited.size());
+    /** positions visited by the tail of a 10 knots rope */
+    @Override
+    public Integer part2() {
+        return tailVisited.size();
     }
 
-    private void moveHead(String encoded) {
+    @Override
+    public void accept(String encoded) {
         Matcher m = MOVE_FORMAT.matcher(encoded);
         if (!m.matches()) throw new IllegalArgumentException("bad move " + encoded);
 
@@ -0,0 +1,150 @@
+package advent.y2022;
+
+import java.util.Arrays;
+
+/**
+ * Day 13 packet parsed once into a flat array of tokens, {@link #OPEN}, {@link #CLOSE} or a (non-negative) value,
+ * and compared by walking both arrays at once: no region, no substring, nothing allocated.
+ */
+final class Flat13 implements Comparable<Flat13> {
+    static final int OPEN = -1;
+    static final int CLOSE = -2;
+    /** list ends come first, then list starts, then values (see {@link #key(int)}) */
+    private static final byte KEY_CLOSE = 0, KEY_OPEN = 1, KEY_VALUE = 2;
+
+    private final int[] tokens;
+
+    Flat13(CharSequence raw) {
+        this.tokens = tokenize(raw);
+    }
+
+    private static int[] tokenize(CharSequence raw) {
+        int[] tokens = new int[raw.length()];
+        int size = 0;
+        for (int i = 0; i < raw.length(); ++i) {
+            char c = raw.charAt(i);
+            if (c == '[') tokens[size++] = OPEN;
+            else if (c == ']') tokens[size++] = CLOSE;
+            else if (c >= '0' && c <= '9') {
+                int val = c - '0';
+                while (i + 1 < raw.length() && (c = raw.charAt(i + 1)) >= '0' && c <= '9') {
+                    val = Math.addExact(Math.multiplyExact(val, 10), c - '0');
+                    ++i;
+                }
+                tokens[size++] = val;
+            } else if (c != ',') {
+                throw new IllegalArgumentException("unexpected '%c' in packet %s".formatted(c, raw));
+            }
+        }
+        if (size == 0 || tokens[0] != OPEN) throw new IllegalArgumentException("not a list: " + raw);
+        return Arrays.copyOf(tokens, size);
+    }
+
+    /**
+     * A value met by a list is read as a singleton list: the list opening is skipped on one side,
+     * and as many closings are pretended on the other side, right after the value.
+     */
+    @Override
+    public int compareTo(Flat13 other) {
+        final int[] a = tokens, b = other.tokens;
+        int i = 0, j = 0;
+        // closings pretended on each side, and whether they are due (the wrapped value being consumed)
+        int wrapA = 0, wrapB = 0;
+        boolean dueA = false, dueB = false;
+        while (true) {
+            final int ta = dueA ? CLOSE : a[i];
+            final int tb = dueB ? CLOSE : b[j];
+            if (ta == tb) {
+                if (dueA) dueA = --wrapA > 0;
+                else {
+                    ++i;
+                    dueA = wrapA > 0;
+                }
+                if (dueB) dueB = --wrapB > 0;
+                else {
+                    ++j;
+                    dueB = wrapB > 0;
+                }
+                // depths stay in step: both packets end together
+                if (i == a.length) return 0;
+            } else if (ta == CLOSE) return -1; // we exhausted first
+            else if (tb == CLOSE) return 1; // they exhausted before us
+            else if (ta == OPEN) { ++i; ++wrapB; } // their value read as a singleton list
+            else if (tb == OPEN) { ++j; ++wrapA; } // our value read as a singleton list
+            else return Integer.compare(ta, tb);
+        }
+    }
+
+    /** @return the deepest nesting of an element (value or list), 0 for the elements of the packet itself */
+    int depth() {
+        int open = 0, max = 0;
+        for (int token : tokens) {
+            if (token == CLOSE) --open;
+            else {
+                // the packet itself is not an element
+                if (open > 0) max = Math.max(max, open - 1);
+                if (token == OPEN) ++open;
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Order-preserving key: packets compare as their keys do, byte by (unsigned) byte,
+     * ties included. As a value compares like the singleton list of itself,
+     * every value is wrapped into lists until it is as deep as {@code depth}: values then
+     * only ever meet values or empty lists, whatever is compared.
+     *
+     * @param depth at least the {@link #depth()} of every packet compared
+     */
+    byte[] key(int depth) {
+        int size = 0, open = 0;
+        for (int token : tokens) {
+            if (token >= 0) size += 2 * (depth - open + 1) + 1 + bytes(token);
+            else {
+                ++size;
+                open += token == OPEN ? 1 : -1;
+            }
+        }
+        byte[] key = new byte[size];
+        int k = 0;
+        open = 0;
+        for (int token : tokens) {
+            if (token == OPEN) {
+                key[k++] = KEY_OPEN;
+                ++open;
+            } else if (token == CLOSE) {
+                key[k++] = KEY_CLOSE;
+                --open;
+            } else {
+                final int wraps = depth - open + 1;
+                for (int w = 0; w < wraps; ++w) key[k++] = KEY_OPEN;
+                // larger values need more bytes, none of them leading zeroes
+                final int bytes = bytes(token);
+                key[k++] = (byte) (KEY_VALUE + bytes);
+                for (int b = bytes - 1; b >= 0; --b) key[k++] = (byte) (token >>> (b << 3));
+                for (int w = 0; w < wraps; ++w) key[k++] = KEY_CLOSE;
+            }
+        }
+        return key;
+    }
+
+    private static int bytes(int value) {
+        return Math.max(1, (Integer.SIZE - Integer.numberOfLeadingZeros(value) + 7) >> 3);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        for (int token : tokens) {
+            if (token == CLOSE && s.charAt(s.length() - 1) == ',') s.setLength(s.length() - 1);
+            switch (token) {
+                case OPEN -> s.append('[');
+                case CLOSE -> s.append("],");
+                default -> s.append(token).append(',');
+            }
+        }
+        s.setLength(s.length() - 1);
+        return s.toString();
+    }
+}
@@ -2,30 +2,47 @@ package advent.y2022;
 
 import advent.Debug;
 import advent.RecursionMonitor;
+import advent.Solver;
 
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 
 import static java.nio.charset.Charset.defaultCharset;
 
-public class Recurse13 {
+public class Recurse13 implements Solver {
     private static final Debug DEBUG = Debug.OFF;
     private static final RecursionMonitor RECURSE = new RecursionMonitor();
 
-    public static void main(String[] args) throws IOException, URISyntaxException {
-        URI input = Ex13.class.getResource("ex13.input.txt").toURI();
+    /** how packets are compared */
+    public enum Mode {
+        /** regions compared recursively, out of the raw packets: kept to check {@link #FLAT} */
+        RECURSIVE,
+        /** tokens parsed once (see {@link Flat13}) */
+        FLAT
+    }
+
+    private final Comparator<Packet> order;
+    private final List<Packet> packets = new ArrayList<>();
+
+    public Recurse13() {
+        this(Mode.FLAT);
+    }
+
+    public Recurse13(Mode mode) {
+        this.order = mode == Mode.FLAT ? Comparator.comparing(Packet::flat) : Comparator.naturalOrder();
+    }
 
-        List<Packet> packets = new ArrayList<>();
-        try (BufferedReader reader = Files.newBufferedReader(Path.of(input), defaultCharset())) {
+    @Override
+    public void parse(Path input) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(input, defaultCharset())) {
             String last = "";
             while (last != null) {
                 packets.add(new Packet(reader.readLine()));
@@ -33,14 +50,33 @@ public class Recurse13 {
                 last = reader.readLine(); // line-feed
             }
         }
-        Packet[] sorted = packets.stream().sorted().toArray(Packet[]::new);
-        int divideBegin = -Arrays.binarySearch(sorted, new Packet("[[2]]"));
+    }
+
+    /** sum of indices of the pairs in the right order */
+    @Override
+    public Integer part1() {
+        int sum = 0;
+        for (int i = 0; i < packets.size(); i += 2) {
+            if (order.compare(packets.get(i), packets.get(i + 1)) < 0) sum += (i >> 1) + 1;
+        }
+        return sum;
+    }
+
+    /** decoder key */
+    @Override
+    public Integer part2() {
+        Packet[] sorted = packets.stream().sorted(order).toArray(Packet[]::new);
+        int divideBegin = -Arrays.binarySearch(sorted, new Packet("[[2]]"), order);
         // add 1 to simulate other divider packet in the list
-        int divideEnd = 1 - Arrays.binarySearch(sorted, new Packet("[[6]]"));
-        System.out.printf("%d×%d=%d in %d max recursions", divideBegin, divideEnd, divideBegin * divideEnd, RECURSE.max());
+        int divideEnd = 1 - Arrays.binarySearch(sorted, new Packet("[[6]]"), order);
+        DEBUG.trace("%d×%d in %d max recursions", divideBegin, divideEnd, RECURSE.max());
+        return divideBegin * divideEnd;
     }
 
-    private record Packet(String raw) implements Comparable<Packet> {
+    private record Packet(String raw, Flat13 flat) implements Comparable<Packet> {
+        Packet(String raw) {
+            this(raw, new Flat13(raw));
+        }
 
         @Override
         public int compareTo(Packet other) {
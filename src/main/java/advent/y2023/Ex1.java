@@ -1,14 +1,10 @@
 package advent.y2023;
 
-import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import advent.LineSolver;
+
 import java.util.List;
-import java.util.function.Consumer;
 
-public class Ex1 implements Consumer<String> {
+public class Ex1 implements LineSolver {
     private int sum = 0;
 
     private static final List<Digit> VALS = List.of(
@@ -57,10 +53,9 @@ public class Ex1 implements Consumer<String> {
         sum += digits[0] * 10 + digits[1];
     }
 
-    public static void main(String[] args) throws IOException, URISyntaxException {
-        Ex1 consumer = new Ex1();
-        URI input = consumer.getClass().getResource("ex1.input.txt").toURI();
-        Files.readAllLines(Path.of(input)).forEach(consumer);
-        System.out.println(consumer.sum);
+    /** calibration, spelled digits included */
+    @Override
+    public Integer part2() {
+        return sum;
     }
 }
@@ -1,19 +1,15 @@
 package advent.y2023;
 
 import advent.Debug;
+import advent.LineSolver;
 
-import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-public class Ex2  implements Consumer<String> {
+public class Ex2  implements LineSolver {
     private static final Debug DEBUG = Debug.OFF;
     private static final Pattern FMT = Pattern.compile("^Game (\\d+): (.+)$");
 
@@ -83,10 +79,9 @@ public class Ex2  implements Consumer<String> {
         }
     }
 
-    public static void main(String[] args) throws IOException, URISyntaxException {
-        Ex2 consumer = new Ex2();
-        URI input = consumer.getClass().getResource("ex2.input.txt").toURI();
-        Files.readAllLines(Path.of(input)).forEach(consumer);
-        System.out.println(consumer.sum);
+    /** power of the minimal sets */
+    @Override
+    public Integer part2() {
+        return sum;
     }
 }
@@ -1,22 +1,19 @@
 package advent.y2023;
 
 import advent.Debug;
+import advent.LineSolver;
 
 import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import static java.lang.Math.abs;
 
-public class Ex3   implements Consumer<String> {
+public class Ex3   implements LineSolver {
     private static final Debug DEBUG = Debug.OFF;
     private static final Pattern NUM = Pattern.compile("(\\d+)");
     private static final Pattern GEAR = Pattern.compile("\\*");
@@ -95,11 +92,15 @@ public class Ex3   implements Consumer<String> {
         return out;
     }
 
-    public static void main(String[] args) throws IOException, URISyntaxException {
-        Ex3 consumer = new Ex3();
-        URI input = consumer.getClass().getResource("ex3.input.txt").toURI();
-        Files.readAllLines(Path.of(input)).forEach(consumer);
-        consumer.handleGears(List.of()); // simule une ligne vide pour gérer les engrenages de la dernière ligne du fichier
-        System.out.println(consumer.sum);
+    @Override
+    public void parse(Path input) throws IOException {
+        LineSolver.super.parse(input);
+        handleGears(List.of()); // simule une ligne vide pour gérer les engrenages de la dernière ligne du fichier
+    }
+
+    /** sum of gear ratios */
+    @Override
+    public Integer part2() {
+        return sum;
     }
 }
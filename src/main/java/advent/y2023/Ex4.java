@@ -1,21 +1,16 @@
 package advent.y2023;
 
 import advent.Debug;
+import advent.LineSolver;
 
-import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.Arrays;
-import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.IntStream;
 
 import static java.util.stream.Collectors.joining;
 
-public class Ex4 implements Consumer<String> {
+public class Ex4 implements LineSolver {
     private static final Debug DEBUG = Debug.OFF;
     private static final Pattern FMT = Pattern.compile("^Card +(\\d+): ([^|]+)\\|(.+)$");
     private long sum = 0;
@@ -86,10 +81,9 @@ public class Ex4 implements Consumer<String> {
                 .mapToInt(Integer::parseInt);
     }
 
-    public static void main(String[] args) throws IOException, URISyntaxException {
-        Ex4 consumer = new Ex4();
-        URI input = consumer.getClass().getResource("ex4.input.txt").toURI();
-        Files.readAllLines(Path.of(input)).forEach(consumer);
-        System.out.println(consumer.sum);
+    /** total scratchcards */
+    @Override
+    public Long part2() {
+        return sum;
     }
 }
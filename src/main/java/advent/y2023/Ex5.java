@@ -1,49 +1,88 @@
 package advent.y2023;
 
-import advent.BigInt;
 import advent.Debug;
+import advent.Solver;
 
 import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.function.Function;
-import java.util.function.Predicate;
-import java.util.function.UnaryOperator;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+import java.util.function.LongUnaryOperator;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static java.nio.charset.Charset.defaultCharset;
-import static java.util.Comparator.comparing;
-import static java.util.Comparator.naturalOrder;
+import static java.util.Comparator.comparingLong;
 
-public class Ex5 {
+public class Ex5 implements Solver {
     private static final Debug DEBUG = Debug.OFF;
-    private Function<BigInt, BigInt> indirect = UnaryOperator.identity();
 
-    private record SeedRange(BigInt start, BigInt len, BigInt fence) {
+    /** how to find the lowest location */
+    public enum Mode {
+        /** push every single seed through the chain, kept to check {@link #RANGES} */
+        BRUTE_FORCE,
+        /** push whole seed ranges through the chain, split where the overloads start and end */
+        RANGES,
+        /** push whole seed ranges through the {@link Fused fused} chain */
+        FUSED
+    }
+
+    private final Mode mode;
+    private final boolean cacheFused;
+    private final List<Indirects> stages = new ArrayList<>();
+    private LongUnaryOperator indirect = LongUnaryOperator.identity();
+    private Fused fused = Fused.IDENTITY;
+    private Seeds seeds;
+
+    public Ex5() {
+        this(Mode.FUSED);
+    }
+
+    public Ex5(Mode mode) {
+        this(mode, false);
+    }
+
+    /**
+     * @param cacheFused whether to save the fused chain next to the input, and read it back rather than the stages
+     *                   while the input is not modified (only in {@link Mode#FUSED} mode, the others needing the stages)
+     */
+    public Ex5(Mode mode, boolean cacheFused) {
+        this.mode = mode;
+        this.cacheFused = cacheFused && mode == Mode.FUSED;
+    }
+
+    /** seeds {@code [start, fence[} */
+    private record SeedRange(long start, long len, long fence) {
         static SeedRange of(String rawStart, String rawLen) {
-            BigInt start = new BigInt(rawStart);
-            BigInt len = new BigInt(rawLen);
-            return new SeedRange(start, len, start.plus(len));
+            long start = Long.parseLong(rawStart);
+            long len = Long.parseLong(rawLen);
+            return new SeedRange(start, len, start + len);
         }
 
-        public Stream<BigInt> stream() {
-            Predicate<BigInt> hasNext = v -> v.lowerTo(fence);
-            return Stream.iterate(start, hasNext, BigInt::inc);
+        static SeedRange between(long start, long fence) {
+            return new SeedRange(start, fence - start, fence);
         }
     }
 
     private static class Seeds {
         private static final Pattern FMT = Pattern.compile("([0-9]+) ([0-9]+)");
         private final List<SeedRange> inner;
+        /** seeds of all ranges, numbered one after the other: range {@code r} starts at number {@code offsets[r]} */
+        private final long[] offsets;
         private Seeds(List<SeedRange> inner) {
             this.inner = inner;
+            offsets = new long[inner.size() + 1];
+            for (int r = 0; r < inner.size(); ++r) offsets[r + 1] = offsets[r] + inner.get(r).len();
         }
 
         static Seeds of(String raw) {
@@ -56,35 +95,104 @@ public class Ex5 {
             return new Seeds(ranges);
         }
 
-        Stream<BigInt> stream() {
-            return inner.stream().flatMap(SeedRange::stream);
+        LongStream stream() {
+            return StreamSupport.longStream(new Spitr(0, offsets[inner.size()]), false);
+        }
+
+        Stream<SeedRange> ranges() {
+            return inner.stream();
+        }
+
+        /** @return index of the range holding seed number {@code n} */
+        private int range(long n) {
+            int r = Arrays.binarySearch(offsets, n);
+            if (r < 0) r = -r - 2;
+            while (r + 1 < inner.size() && offsets[r + 1] <= n) ++r; // skip empty ranges
+            return r;
+        }
+
+        /**
+         * Seeds numbered {@code [from, fence[}, across ranges: splits evenly whatever the ranges sizes,
+         * so that each core gets its share of the seeds.
+         */
+        private class Spitr implements Spliterator.OfLong {
+            private long current;
+            private final long fence;
+
+            Spitr(long from, long fence) {
+                this.current = from;
+                this.fence = fence;
+            }
+
+            @Override
+            public boolean tryAdvance(LongConsumer action) {
+                if (current >= fence) return false;
+                int r = range(current);
+                action.accept(inner.get(r).start() + current - offsets[r]);
+                ++current;
+                return true;
+            }
+
+            @Override
+            public void forEachRemaining(LongConsumer action) {
+                for (int r = current < fence ? range(current) : inner.size(); current < fence; ++r) {
+                    final long end = Math.min(fence, offsets[r + 1]);
+                    final long shift = inner.get(r).start() - offsets[r];
+                    for (long n = current; n < end; ++n) action.accept(n + shift);
+                    current = end;
+                }
+            }
+
+            @Override
+            public Spliterator.OfLong trySplit() {
+                long mid = (current + fence) >>> 1;
+                if (mid <= current) return null; // too small to split
+                Spitr prefix = new Spitr(current, mid);
+                current = mid;
+                return prefix;
+            }
+
+            @Override
+            public long estimateSize() {
+                return fence - current;
+            }
+
+            @Override
+            public int characteristics() {
+                return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+            }
         }
     }
 
-    private record Indirect(BigInt src, BigInt dst, int len, BigInt fence) {
+    private record Indirect(long src, long dst, long len, long fence) {
         private static final Pattern FMT = Pattern.compile("^([0-9]+) ([0-9]+) ([0-9]+)$");
         static Indirect of(String raw) {
             Matcher m = FMT.matcher(raw);
             if (!m.matches()) throw new IllegalArgumentException("bad definition: " + raw);
-            BigInt src = new BigInt(m.group(2));
-            int len = Integer.parseInt(m.group(3));
+            long src = Long.parseLong(m.group(2));
+            long len = Long.parseLong(m.group(3));
             return new Indirect(
                     src,
-                    new BigInt(m.group(1)),
+                    Long.parseLong(m.group(1)),
                     len,
-                    src.plus(len)
+                    src + len
             );
         }
 
         @Override
         public String toString() {
-            return "[%s,%s[ → %s".formatted(src, fence, dst);
+            return "[%d,%d[ → %d".formatted(src, fence, dst);
         }
     }
 
-    private static class Indirects implements UnaryOperator<BigInt> {
+    /**
+     * Once {@link #compile() compiled}, overloads sorted by source are held in parallel arrays,
+     * so that a lookup is a binary search without any allocation.
+     */
+    private static class Indirects implements LongUnaryOperator {
         private final List<Indirect> inner = new ArrayList<>();
         private final String name;
+        private long[] src, fence, delta;
         Indirects(String name) {
             this.name = name;
         }
@@ -93,36 +201,178 @@ public class Ex5 {
             inner.add(Indirect.of(raw));
         }
 
-        Indirects sort() {
-            inner.sort(comparing(Indirect::src));
+        Indirects compile() {
+            inner.sort(comparingLong(Indirect::src));
+            final int size = inner.size();
+            src = new long[size];
+            fence = new long[size];
+            delta = new long[size];
+            for (int i = 0; i < size; ++i) {
+                Indirect overload = inner.get(i);
+                src[i] = overload.src();
+                fence[i] = overload.fence();
+                delta[i] = overload.dst() - overload.src();
+            }
+            DEBUG.trace("%s %s", name, inner);
             return this;
         }
 
-        public BigInt apply(BigInt in) {
-            DEBUG.trace("%s %s in %s", name, in, inner);
-            for (Indirect i : inner) {
-                if (in.lowerTo(i.src())) {
-                    break; // `in` isn't overloaded
-                } else if (in.equals(i.src())) {
-                    return i.dst(); // trivial overload
-                } else if (in.lowerTo(i.fence())) {
-                    // `i.src < in < i.fence` → compute overload
-                    BigInt delta = in.minus(i.src());
-                    return i.dst().plus(delta);
+        @Override
+        public long applyAsLong(long in) {
+            int i = covering(in);
+            return i < 0 ? in : in + delta[i];
+        }
+
+        /** @return where the whole range goes: one range per overload it crosses, and per gap between them */
+        public Stream<SeedRange> apply(SeedRange in) {
+            Stream.Builder<SeedRange> out = Stream.builder();
+            split(in.start(), in.fence(), (start, fence, delta) -> out.add(SeedRange.between(start + delta, fence + delta)));
+            return out.build();
+        }
+
+        /** cuts {@code [start, fence[} where the overloads start and end, each piece with its shift */
+        void split(long start, long fence, Piece out) {
+            long current = start;
+            // first overload not entirely before `current`
+            int i = Arrays.binarySearch(src, current);
+            if (i < 0) i = -i - 1;
+            if (i > 0 && current < this.fence[i - 1]) --i;
+            for (; i < src.length && current < fence; ++i) {
+                if (current < src[i]) {
+                    // gap before overload, not overloaded
+                    long gapEnd = Math.min(src[i], fence);
+                    out.accept(current, gapEnd, 0);
+                    current = gapEnd;
+                    if (current >= fence) break;
                 }
+                // `src <= current < fence` → overloaded up to the first fence
+                long end = Math.min(this.fence[i], fence);
+                out.accept(current, end, delta[i]);
+                current = end;
             }
-            return in;
+            if (current < fence) out.accept(current, fence, 0);
         }
+
+        /** @return index of the overload covering {@code in}, negative if none */
+        private int covering(long in) {
+            int i = Arrays.binarySearch(src, in);
+            if (i >= 0) return i;
+            i = -i - 2; // last overload starting before `in`
+            return i >= 0 && in < fence[i] ? i : -1;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Piece {
+        /** values in {@code [start, fence[} are shifted by {@code delta} */
+        void accept(long start, long fence, long delta);
     }
 
-    public static void main(String[] args) throws IOException, URISyntaxException {
-        URI input = Ex5.class.getResource("ex5.input.txt").toURI();
-        Ex5 ex = new Ex5();
-        Seeds seeds;
+    /**
+     * All stages composed in a single piecewise shift: sorted piece starts (the first one being {@link Long#MIN_VALUE},
+     * so that pieces cover all values) with the shift of each piece.
+     * Any seed then goes to its location through a single binary search.
+     */
+    private static class Fused implements LongUnaryOperator {
+        static final Fused IDENTITY = new Fused(new long[] { Long.MIN_VALUE }, new long[] { 0 });
+
+        private final long[] starts, deltas;
+        private Fused(long[] starts, long[] deltas) {
+            this.starts = starts;
+            this.deltas = deltas;
+        }
+
+        @Override
+        public long applyAsLong(long in) {
+            return in + deltas[piece(in)];
+        }
+
+        /**
+         * @return this, then {@code stage}: pieces are counted first, as the images of several pieces
+         * may overlap (stages are no bijections) and be cut by the same overloads
+         */
+        Fused then(Indirects stage) {
+            final int[] size = { 0 };
+            split(stage, (start, end, delta) -> ++size[0]);
+            final long[] fusedStarts = new long[size[0]];
+            final long[] fusedDeltas = new long[size[0]];
+            size[0] = 0;
+            split(stage, (start, end, delta) -> {
+                int last = size[0] - 1;
+                if (last >= 0 && fusedDeltas[last] == delta) return; // same shift: same piece
+                fusedStarts[size[0]] = start;
+                fusedDeltas[size[0]++] = delta;
+            });
+            return new Fused(Arrays.copyOf(fusedStarts, size[0]), Arrays.copyOf(fusedDeltas, size[0]));
+        }
+
+        /** cuts every piece where {@code stage} overloads start and end, in seed values with the total shift */
+        private void split(Indirects stage, Piece out) {
+            for (int i = 0; i < starts.length; ++i) {
+                final long delta = deltas[i];
+                long fence = i + 1 < starts.length ? starts[i + 1] : Long.MAX_VALUE;
+                // the last piece, up to Long.MAX_VALUE, is beyond every overload: never shifted, its fence never overflows
+                if (fence == Long.MAX_VALUE && delta != 0) {
+                    throw new IllegalStateException("last piece from %d shifted by %d".formatted(starts[i], delta));
+                }
+                stage.split(starts[i] + delta, fence + delta,
+                        (start, end, next) -> out.accept(start - delta, end - delta, delta + next));
+            }
+        }
+
+        /** @return lowest location among the whole range, {@link Long#MAX_VALUE} if it holds no seed */
+        long lowest(SeedRange range) {
+            long lowest = Long.MAX_VALUE;
+            if (range.len() <= 0) return lowest;
+            // the lowest of a piece is where the range enters it
+            for (int i = piece(range.start()); i < starts.length && starts[i] < range.fence(); ++i) {
+                lowest = Math.min(lowest, Math.max(starts[i], range.start()) + deltas[i]);
+            }
+            return lowest;
+        }
+
+        private int piece(long in) {
+            int i = Arrays.binarySearch(starts, in);
+            return i >= 0 ? i : -i - 2;
+        }
 
-        try (BufferedReader reader = Files.newBufferedReader(Path.of(input), defaultCharset())) {
+        void save(Path cache) throws IOException {
+            try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(cache))) {
+                out.writeInt(starts.length);
+                for (int i = 0; i < starts.length; ++i) {
+                    out.writeLong(starts[i]);
+                    out.writeLong(deltas[i]);
+                }
+            }
+        }
+
+        static Fused load(Path cache) throws IOException {
+            try (DataInputStream in = new DataInputStream(Files.newInputStream(cache))) {
+                int size = in.readInt();
+                long[] starts = new long[size];
+                long[] deltas = new long[size];
+                for (int i = 0; i < size; ++i) {
+                    starts[i] = in.readLong();
+                    deltas[i] = in.readLong();
+                }
+                return new Fused(starts, deltas);
+            }
+        }
+    }
+
+    @Override
+    public void parse(Path input) throws IOException {
+        final Path cache = input.resolveSibling(input.getFileName() + ".fused");
+        final boolean cached = cacheFused && Files.exists(cache)
+                && Files.getLastModifiedTime(cache).compareTo(Files.getLastModifiedTime(input)) >= 0;
+        try (BufferedReader reader = Files.newBufferedReader(input, defaultCharset())) {
             String line = reader.readLine();
             seeds = Seeds.of(line);
+            if (cached) {
+                fused = Fused.load(cache);
+                DEBUG.trace("fused chain read back from %s", cache);
+                return;
+            }
             reader.readLine(); // empty line
             line = reader.readLine(); // 1st section title
             while (line != null) {
@@ -133,15 +383,39 @@ public class Ex5 {
                     line = reader.readLine();
                 }
                 // empty line consumed (made us exit loop)
-                ex.indirect = ex.indirect.andThen(indirects.sort());
+                stages.add(indirects.compile());
+                switch (mode) {
+                    case BRUTE_FORCE -> indirect = indirect.andThen(indirects);
+                    case FUSED -> fused = fused.then(indirects);
+                    case RANGES -> { } // ranges go through the stages themselves
+                }
                 if (line != null) {
                     line = reader.readLine(); // next section title (or null if EOF)
                 }
             }
         }
+        if (cacheFused) fused.save(cache);
+    }
+
+    /** lowest location, seeds being ranges */
+    @Override
+    public Long part2() {
+        return switch (mode) {
+            case BRUTE_FORCE -> seeds.stream().parallel().map(indirect).min()
+                    .orElse(0);
+            case RANGES -> lowestOfRanges();
+            case FUSED -> seeds.ranges().filter(range -> range.len() > 0).mapToLong(fused::lowest).min()
+                    .orElse(0);
+        };
+    }
 
-        BigInt min = seeds.stream().parallel().map(ex.indirect).min(naturalOrder())
-                .orElse(BigInt.ZERO);
-        System.out.println(min);
+    private long lowestOfRanges() {
+        Stream<SeedRange> ranges = seeds.ranges();
+        for (Indirects stage : stages) {
+            ranges = ranges.flatMap(stage::apply);
+        }
+        // each range maps to a contiguous range → its start is its lowest location
+        return ranges.mapToLong(SeedRange::start).min()
+                .orElse(0);
     }
 }
@@ -0,0 +1,119 @@
+package advent.graph;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GridSearchTest {
+
+    /** digits are the cost of entering a cell, {@code #} are walls */
+    private record Weighted(String... rows) implements GridGraph {
+        @Override
+        public int width() {
+            return rows[0].length();
+        }
+
+        @Override
+        public int height() {
+            return rows.length;
+        }
+
+        @Override
+        public boolean canStep(int from, int to) {
+            return at(to) != '#';
+        }
+
+        @Override
+        public int cost(int from, int to) {
+            return at(to) - '0';
+        }
+
+        private char at(int cell) {
+            return rows[y(cell)].charAt(x(cell));
+        }
+    }
+
+    private static int pathCost(GridGraph graph, int[] path) {
+        int cost = 0;
+        for (int i = 1; i < path.length; ++i) cost += graph.cost(path[i - 1], path[i]);
+        return cost;
+    }
+
+    @Test
+    void unitCostsAgree() {
+        Weighted maze = new Weighted(
+                "1111#111",
+                "1##1#1#1",
+                "1#11111#",
+                "1#1###11",
+                "111#1111");
+        GridSearch search = new GridSearch(maze, true);
+        int goal = maze.cells() - 1;
+
+        Paths bfs = search.bfs(0, c -> c == goal);
+        Paths dijkstra = search.dijkstra(0, c -> c == goal);
+        Paths aStar = search.aStar(0, goal, search.manhattan(goal));
+
+        assertThat(bfs.goalDistance()).hasValue(11);
+        assertThat(dijkstra.goalDistance()).hasValue(11);
+        assertThat(aStar.goalDistance()).hasValue(11);
+        assertThat(bfs.path(goal)).hasSize(12).startsWith(0).endsWith(goal);
+        assertThat(aStar.path(goal)).hasSize(12).startsWith(0).endsWith(goal);
+    }
+
+    @Test
+    void weightedCostsAgree() {
+        Weighted grid = new Weighted(
+                "13911",
+                "1#9#1",
+                "11191",
+                "9#1#1",
+                "11111");
+        GridSearch search = new GridSearch(grid, true);
+        int goal = grid.cell(2, 0);
+
+        Paths dijkstra = search.dijkstra(0, c -> c == goal);
+        Paths aStar = search.aStar(0, goal, search.manhattan(goal));
+
+        // around the 9s, rather than through them
+        assertThat(dijkstra.goalDistance()).hasValue(12);
+        assertThat(aStar.goalDistance()).hasValue(12);
+        assertThat(pathCost(grid, aStar.path(goal))).isEqualTo(12);
+        // the whole field, unbounded
+        assertThat(search.dijkstra(0, c -> false).distance(goal)).isEqualTo(12);
+    }
+
+    @Test
+    void unreachableGoal() {
+        Weighted walled = new Weighted(
+                "11#1",
+                "11#1");
+        GridSearch search = new GridSearch(walled, true);
+        int goal = walled.cell(3, 1);
+
+        assertThat(search.bfs(0, c -> c == goal).goalDistance()).isEmpty();
+        assertThat(search.aStar(0, goal, search.manhattan(goal)).goalDistance()).isEmpty();
+        assertThat(search.dijkstra(0, c -> false).reached(goal)).isFalse();
+    }
+
+    /**
+     * The heuristic is admissible (exact, or 0) but not consistent:
+     * cell (1,1) is first reached through (0,1) for 10, then through (1,0) for 6, once it was expanded.
+     */
+    @Test
+    void aStarReopensImprovedCells() {
+        Weighted grid = new Weighted(
+                "929",
+                "649",
+                "599");
+        int[] heuristic = { 0, 22, 18, 0, 0, 9, 18, 0, 0 };
+        GridSearch search = new GridSearch(grid, true);
+        int goal = grid.cells() - 1;
+
+        Paths aStar = search.aStar(0, goal, c -> heuristic[c]);
+
+        assertThat(aStar.goalDistance()).hasValue(24);
+        assertThat(aStar.path(goal)).startsWith(0, 1, 4).endsWith(goal);
+        assertThat(pathCost(grid, aStar.path(goal))).isEqualTo(24);
+    }
+}
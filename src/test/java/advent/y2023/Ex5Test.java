@@ -0,0 +1,53 @@
+package advent.y2023;
+
+import advent.Runner;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Ex5Test {
+
+    /** seeds 0..9 all land on soil 50..59, of which only 55 is overloaded by the next stage */
+    private static final String OVERLAPPING_IMAGES = """
+            seeds: 0 20
+
+            seed-to-soil map:
+            50 0 10
+
+            soil-to-fertilizer map:
+            0 55 1
+            """;
+
+    /** seed 5 would be the lowest location, but its range is empty */
+    private static final String EMPTY_RANGE = """
+            seeds: 5 0 30 3
+
+            seed-to-soil map:
+            0 5 1
+            """;
+
+    @TempDir
+    Path dir;
+
+    @ParameterizedTest
+    @EnumSource(Ex5.Mode.class)
+    void overlappingImages(Ex5.Mode mode) throws IOException {
+        Path input = Files.writeString(dir.resolve("ex5.txt"), OVERLAPPING_IMAGES);
+
+        assertThat(Runner.solve(new Ex5(mode), input).part2()).isEqualTo(0L);
+    }
+
+    @ParameterizedTest
+    @EnumSource(Ex5.Mode.class)
+    void emptyRange(Ex5.Mode mode) throws IOException {
+        Path input = Files.writeString(dir.resolve("ex5.txt"), EMPTY_RANGE);
+
+        assertThat(Runner.solve(new Ex5(mode), input).part2()).isEqualTo(30L);
+    }
+}